@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberBulkIngestService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 1000명 저장 시 감사 필드 비용.
+ * cachePerTransaction=false 는 기존 방식(쓰기마다 UUID.randomUUID, LocalDateTime.now).
+ * saveAll 은 엔티티 리스너 경로, ingest 는 AuditStamp 를 한 번에 찍는 경로.
+ * ./gradlew jmh -Pjmh.include=AuditingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AuditingBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"false", "true"})
+    boolean cachePerTransaction;
+
+    @Param({"1000"})
+    int rows;
+
+    MemberRepository memberRepository;
+    MemberBulkIngestService memberBulkIngestService;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(0, "datajpa.auditing.cache-per-transaction=" + cachePerTransaction,
+                "logging.level.study.datajpa.service=warn");
+        memberRepository = bean(MemberRepository.class);
+        memberBulkIngestService = bean(MemberBulkIngestService.class);
+        transactionTemplate = bean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member("audit" + i, i % 100));
+        }
+        return members;
+    }
+
+    @Benchmark
+    public Object saveAll() {
+        List<Member> members = newMembers();
+        return transactionTemplate.execute(status -> memberRepository.saveAll(members));
+    }
+
+    @Benchmark
+    public Object ingest() {
+        return memberBulkIngestService.ingest(newMembers());
+    }
+}
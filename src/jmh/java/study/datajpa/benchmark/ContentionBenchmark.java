@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.OptimisticRetryExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 소수의 hot 회원에 writers 개 스레드가 동시에 나이를 증가시킨다. 호출 1번 = writers × 10 번 증가.
+ * 세 방식 모두 pk 로 읽는다. pessimistic: findLockById (select for update), optimistic: @Version + 재시도, compareAndSet: updateAgeIfVersion + 재시도
+ * ./gradlew jmh -Pjmh.include=ContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentionBenchmark extends JpaBenchmarkSupport {
+
+    private static final int HOT_MEMBERS = 8;
+    private static final int UPDATES_PER_WRITER = 10;
+
+    @Param({"8", "32", "128"})
+    int writers;
+
+    MemberRepository memberRepository;
+    OptimisticRetryExecutor optimisticRetryExecutor;
+    TransactionTemplate transactionTemplate;
+    ExecutorService executor;
+    List<Long> hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(0, "datajpa.optimistic-retry.max-attempts=1000");
+        memberRepository = bean(MemberRepository.class);
+        optimisticRetryExecutor = bean(OptimisticRetryExecutor.class);
+        transactionTemplate = bean(TransactionTemplate.class);
+        executor = Executors.newFixedThreadPool(writers);
+
+        hotIds = new ArrayList<>();
+        for (int i = 0; i < HOT_MEMBERS; i++) {
+            hotIds.add(memberRepository.save(new Member("hot" + i, 0)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        stop();
+    }
+
+    private int randomHot() {
+        return ThreadLocalRandom.current().nextInt(HOT_MEMBERS);
+    }
+
+    @Benchmark
+    public void pessimistic() throws Exception {
+        concurrently(() -> transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findLockById(hotIds.get(randomHot())).get();
+            member.setAge(member.getAge() + 1);
+        }));
+    }
+
+    @Benchmark
+    public void optimistic() throws Exception {
+        concurrently(() -> optimisticRetryExecutor.run(() -> {
+            Member member = memberRepository.findById(hotIds.get(randomHot())).get();
+            member.setAge(member.getAge() + 1);
+        }));
+    }
+
+    @Benchmark
+    public void compareAndSet() throws Exception {
+        concurrently(() -> optimisticRetryExecutor.run(() -> {
+            Long id = hotIds.get(randomHot());
+            Member member = memberRepository.findById(id).get();
+            OptimisticRetryExecutor.requireUpdated(
+                    memberRepository.updateAgeIfVersion(id, member.getAge() + 1, member.getVersion()), id);
+        }));
+    }
+
+    private void concurrently(Runnable update) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < UPDATES_PER_WRITER; j++) {
+                    update.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
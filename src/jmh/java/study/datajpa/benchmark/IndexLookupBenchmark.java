@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username / age 조회 지연시간을 인덱스가 있을 때와 없을 때 비교한다. (1M rows)
+ * ./gradlew jmh -Pjmh.include=IndexLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexLookupBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"1000000"})
+    int dataSize;
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(dataSize, "datajpa.schema-verifier.enabled=false");
+        memberRepository = bean(MemberRepository.class);
+        if (!indexed) {
+            JdbcTemplate jdbcTemplate = bean(JdbcTemplate.class);
+            jdbcTemplate.execute("drop index idx_member_username_id");
+            jdbcTemplate.execute("drop index idx_member_age");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    @Benchmark
+    public Object findListByUsername() {
+        // findByUsername 은 쿼리 캐시를 타므로 캐시 없는 파생 쿼리로 잰다.
+        return memberRepository.findListByUsername("member" + ThreadLocalRandom.current().nextInt(dataSize));
+    }
+
+    @Benchmark
+    public Object findListByAge() {
+        return memberRepository.findListByAge(ThreadLocalRandom.current().nextInt(100), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Object findTop3ByAge() {
+        return memberRepository.findTop3ByAge(ThreadLocalRandom.current().nextInt(100));
+    }
+}
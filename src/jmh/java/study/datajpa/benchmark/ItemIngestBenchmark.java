@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+import study.datajpa.service.ItemIngestService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Item 적재 처리량. 호출 1번 = batchItems 개 적재, 매번 새 id.
+ * ./gradlew jmh -Pjmh.include=ItemIngestBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemIngestBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"1000"})
+    int batchItems;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    ItemRepository itemRepository;
+    ItemIngestService itemIngestService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(0);
+        itemRepository = bean(ItemRepository.class);
+        itemIngestService = bean(ItemIngestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    private List<Item> newItems() {
+        List<Item> items = new ArrayList<>(batchItems);
+        for (int i = 0; i < batchItems; i++) {
+            items.add(new Item("item-" + sequence.incrementAndGet()));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public void saveEach() {
+        // 기존 방식: save 마다 트랜잭션
+        for (Item item : newItems()) {
+            itemRepository.save(item);
+        }
+    }
+
+    @Benchmark
+    public Object saveAll() {
+        return itemRepository.saveAll(newItems());
+    }
+
+    @Benchmark
+    public Object ingest() {
+        return itemIngestService.ingest(newItems());
+    }
+
+    @Benchmark
+    public Object insertIgnore() {
+        return itemIngestService.insertIgnore(newItems());
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.MemberBulkIngestService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크마다 in-memory H2 위에 스프링 컨텍스트를 띄우고 dataSize 만큼 회원을 적재한다.
+ * 회원 100명당 팀 1개, 회원 나이는 0~99.
+ */
+public abstract class JpaBenchmarkSupport {
+
+    protected ConfigurableApplicationContext context;
+
+    protected void start(int dataSize, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "spring.jpa.open-in-view=false",
+                "decorator.datasource.p6spy.enable-logging=false",
+                "logging.level.org.hibernate.SQL=warn"));
+        defaults.addAll(List.of(properties));
+
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(defaults.toArray(new String[0]))
+                .run();
+        seed(dataSize);
+    }
+
+    protected void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(int dataSize) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, dataSize / 100); i++) {
+            teams.add(new Team("team" + i));
+        }
+        bean(TeamRepository.class).saveAll(teams);
+
+        List<Member> members = new ArrayList<>(dataSize);
+        for (int i = 0; i < dataSize; i++) {
+            members.add(new Member("member" + i, i % 100, teams.get(i % teams.size())));
+        }
+        bean(MemberBulkIngestService.class).ingest(members);
+    }
+}
@@ -0,0 +1,68 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberRow;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 리포트성 네이티브 조회: 프록시 프로젝션(findByNativeProjection) 과 MemberRow 직접 매핑(findNativeRows, streamNativeRows) 비교.
+ * 행당 할당량은 gc.alloc.rate.norm / pageSize 로 본다.
+ * ./gradlew jmh -Pjmh.include=NativeProjectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NativeProjectionBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"50000"})
+    int dataSize;
+
+    @Param({"20000"})
+    int pageSize;
+
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(dataSize);
+        memberRepository = bean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    @Benchmark
+    public Object proxyPage() {
+        return memberRepository.findByNativeProjection(PageRequest.of(1, pageSize, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Object rowPage() {
+        return memberRepository.findNativeRows(PageRequest.of(1, pageSize, Sort.by("id")));
+    }
+
+    @Benchmark
+    public void rowStream(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<MemberRow> rows = memberRepository.streamNativeRows(Sort.by("id"), 1000)) {
+                rows.forEach(blackhole::consume);
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스프링 데이터 프로젝션(findProjections*ByUsername)과 컴파일된 프로젝션(findProjectedByUsername) 비교.
+ * 할당량은 gc.alloc.rate.norm (jmh 태스크가 -prof gc 로 실행) 으로 본다.
+ * ./gradlew jmh -Pjmh.include=ProjectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"10000"})
+    int dataSize;
+
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(dataSize);
+        memberRepository = bean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(dataSize);
+    }
+
+    @Benchmark
+    public Object interfaceProxy() {
+        return memberRepository.findProjectionsByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object interfaceCompiled() {
+        return memberRepository.findProjectedByUsername(randomUsername(), UsernameOnly.class);
+    }
+
+    @Benchmark
+    public Object dtoDerived() {
+        return memberRepository.findProjectionsV2ByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object dtoCompiled() {
+        return memberRepository.findProjectedByUsername(randomUsername(), UsernameOnlyDto.class);
+    }
+
+    // 스프링 데이터는 중첩 프로젝션이면 Member + Team 엔티티를 통째로 읽는다.
+    @Benchmark
+    public Object nestedProxy() {
+        return memberRepository.findProjectionsV3ByUsername(randomUsername(), NestedClosedProjections.class);
+    }
+
+    @Benchmark
+    public Object nestedCompiled() {
+        return memberRepository.findProjectedByUsername(randomUsername(), NestedClosedProjections.class);
+    }
+}
@@ -0,0 +1,95 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포지토리 hot path 회귀 기준선. ./gradlew jmh -Pjmh.include=RepositoryBenchmark (gc 프로파일러 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"1000", "10000", "100000"})
+    int dataSize;
+
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(dataSize);
+        memberRepository = bean(MemberRepository.class);
+        transactionTemplate = bean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(dataSize);
+    }
+
+    @Benchmark
+    public Object findByUsername() {
+        return memberRepository.findByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object findMemberFetchJoin() {
+        return memberRepository.findMemberFetchJoin();
+    }
+
+    @Benchmark
+    public Object findMemberEntityGraph() {
+        return memberRepository.findMemberEntityGraph();
+    }
+
+    @Benchmark
+    public Object findAllPageable() {
+        int page = ThreadLocalRandom.current().nextInt(dataSize / 20);
+        return memberRepository.findAll(PageRequest.of(page, 20));
+    }
+
+    @Benchmark
+    public Object findProjectionsByUsername() {
+        return memberRepository.findProjectionsByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object findProjectionsV2ByUsername() {
+        return memberRepository.findProjectionsV2ByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object findProjectionsV3ByUsername() {
+        return memberRepository.findProjectionsV3ByUsername(randomUsername(), NestedClosedProjections.class);
+    }
+
+    @Benchmark
+    public Object findByNativeProjection() {
+        return memberRepository.findByNativeProjection(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Object bulkAgePlus() {
+        // 매 호출마다 데이터가 바뀌지 않도록 롤백한다.
+        return transactionTemplate.execute(status -> {
+            int count = memberRepository.bulkAgePlus(50);
+            status.setRollbackOnly();
+            return count;
+        });
+    }
+}
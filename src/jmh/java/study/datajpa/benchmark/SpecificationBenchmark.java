@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSpec;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAll(Specification) 과 캐시된 JPQL(MemberSpecCompiler) 비교.
+ * ./gradlew jmh -Pjmh.include=SpecificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationBenchmark extends JpaBenchmarkSupport {
+
+    @Param({"10000"})
+    int dataSize;
+
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(dataSize);
+        memberRepository = bean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(dataSize);
+    }
+
+    private String randomTeamName() {
+        return "team" + ThreadLocalRandom.current().nextInt(dataSize / 100);
+    }
+
+    @Benchmark
+    public Object specificationUsernameAndTeam() {
+        Specification<Member> spec = MemberSpec.username(randomUsername()).and(MemberSpec.teamName(randomTeamName()));
+        return memberRepository.findAll(spec);
+    }
+
+    @Benchmark
+    public Object compiledUsernameAndTeam() {
+        return memberRepository.search(new MemberSearchCondition(randomUsername(), randomTeamName()));
+    }
+
+    @Benchmark
+    public Object specificationUsernameOnly() {
+        Specification<Member> spec = MemberSpec.username(randomUsername()).and(MemberSpec.teamName(null));
+        return memberRepository.findAll(spec);
+    }
+
+    @Benchmark
+    public Object compiledUsernameOnly() {
+        return memberRepository.search(new MemberSearchCondition(randomUsername(), null));
+    }
+}
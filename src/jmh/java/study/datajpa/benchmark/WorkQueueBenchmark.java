@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.service.MemberWorkQueue;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매 호출 전에 회원 1000명을 age=BACKLOG 로 되돌리고, workers 개 스레드가 모두 처리하는 시간을 잰다.
+ * skipLocked: MemberWorkQueue (for update skip locked), blocking: 같은 쿼리를 skip locked 없이 (워커끼리 줄을 선다)
+ * ./gradlew jmh -Pjmh.include=WorkQueueBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class WorkQueueBenchmark extends JpaBenchmarkSupport {
+
+    private static final int BACKLOG = 1000;
+    private static final int DONE = 1001;
+    private static final int BATCH_SIZE = 20;
+
+    @Param({"1", "4", "16"})
+    int workers;
+
+    MemberWorkQueue memberWorkQueue;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+    JdbcTemplate jdbcTemplate;
+    ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(100000, "datajpa.schema-verifier.enabled=false");
+        memberWorkQueue = bean(MemberWorkQueue.class);
+        transactionTemplate = bean(TransactionTemplate.class);
+        em = bean(EntityManager.class);
+        jdbcTemplate = bean(JdbcTemplate.class);
+        executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @Setup(Level.Invocation)
+    public void refillBacklog() {
+        jdbcTemplate.update("update member set age = ? where member_id in (select member_id from member order by member_id limit ?)",
+                BACKLOG, BACKLOG);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        stop();
+    }
+
+    @Benchmark
+    public int skipLocked() throws Exception {
+        return concurrently(() -> memberWorkQueue.drain(BACKLOG, BATCH_SIZE, member -> member.setAge(DONE)));
+    }
+
+    @Benchmark
+    public int blocking() throws Exception {
+        return concurrently(() -> {
+            int processed = 0;
+            while (true) {
+                Integer claimed = transactionTemplate.execute(status -> {
+                    @SuppressWarnings("unchecked")
+                    List<Member> members = em.createNativeQuery(
+                                    "select * from member where age = ? order by member_id limit ? for update", Member.class)
+                            .setParameter(1, BACKLOG)
+                            .setParameter(2, BATCH_SIZE)
+                            .getResultList();
+                    members.forEach(member -> member.setAge(DONE));
+                    return members.size();
+                });
+                if (claimed == null || claimed == 0) {
+                    return processed;
+                }
+                processed += claimed;
+            }
+        });
+    }
+
+    private int concurrently(Callable<Integer> worker) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(worker));
+        }
+        int processed = 0;
+        for (Future<Integer> future : futures) {
+            processed += future.get();
+        }
+        return processed;
+    }
+}
@@ -1,16 +1,18 @@
 package study.datajpa;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.datajpa.auditing.ScopedAuditorAware;
 
 import java.util.Optional;
 import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider") // 시각은 AuditingConfig 의 Clock 사용
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.datajpa.repository") // spring boot 사용시 생략 가능
 public class DataJpaApplication {
@@ -20,14 +22,16 @@ public class DataJpaApplication {
 	}
 
 	@Bean
-	public AuditorAware<String> auditorProvider() {
+	public AuditorAware<String> auditorProvider(@Value("${datajpa.auditing.cache-per-transaction:true}") boolean cachePerTransaction) {
 
 		/*return new AuditorAware<String>() {
 			@Override
 			public Optional<String> getCurrentAuditor() {
 				return Optional.of(UUID.randomUUID().toString());
 			}*/
-		return () -> Optional.of(UUID.randomUUID().toString());
+//		return () -> Optional.of(UUID.randomUUID().toString());
+		// 트랜잭션(요청)마다 한 번만 생성 (SecureRandom 경합 감소)
+		return new ScopedAuditorAware(() -> UUID.randomUUID().toString(), cachePerTransaction);
 	}
 
 }
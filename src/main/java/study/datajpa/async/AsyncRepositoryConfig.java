@@ -0,0 +1,21 @@
+package study.datajpa.async;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.time.Duration;
+
+@EnableAsync
+@Configuration
+public class AsyncRepositoryConfig {
+
+    @Bean
+    public BackpressureExecutor repositoryExecutor(
+            @Value("${datajpa.async.max-in-flight:${spring.datasource.hikari.maximum-pool-size:10}}") int maxInFlight,
+            @Value("${datajpa.async.acquire-timeout:100ms}") Duration acquireTimeout,
+            @Value("${datajpa.async.virtual-threads:false}") boolean virtualThreads) {
+        return new BackpressureExecutor(maxInFlight, acquireTimeout, virtualThreads);
+    }
+}
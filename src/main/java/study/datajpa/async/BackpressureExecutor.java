@@ -0,0 +1,88 @@
+package study.datajpa.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시에 실행 중인 리포지토리 작업 수를 커넥션 풀 크기(maxInFlight)로 제한하는 Executor.
+ * 자리가 나지 않으면 acquireTimeout 만큼만 기다리고 RejectedExecutionException 으로 거절한다.
+ * 가상 스레드를 쓸 수 있는 런타임(Java 21+)이면 작업마다 가상 스레드를, 아니면 고정 크기 스레드 풀을 쓴다.
+ */
+@Slf4j
+public class BackpressureExecutor implements Executor, DisposableBean {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public BackpressureExecutor(int maxInFlight, Duration acquireTimeout, boolean virtualThreads) {
+        this.permits = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        ExecutorService virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.delegate = virtual != null ? virtual : Executors.newFixedThreadPool(maxInFlight, namedThreads());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("repository executor saturated (" + permits.availablePermits() + " permits left)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void destroy() {
+        delegate.shutdown();
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("repository executor uses virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            log.info("virtual threads not supported by this runtime, falling back to a fixed thread pool");
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "repository-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.auditing;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * 감사 필드에 쓰는 시각. cachePerTransaction 이면 트랜잭션(요청) 안의 모든 엔티티가 같은 시각을 받는다.
+ * AuditingConfig 가 빈으로 등록하고, 엔티티 콜백은 JpaBaseEntityListener 가 주입받아 쓴다.
+ */
+public class AuditClock {
+
+    private final Clock clock;
+    private final boolean cachePerTransaction;
+    private final AuditScope<LocalDateTime> scope = new AuditScope<>("now");
+
+    public AuditClock(Clock clock, boolean cachePerTransaction) {
+        this.clock = clock;
+        this.cachePerTransaction = cachePerTransaction;
+    }
+
+    public LocalDateTime now() {
+        if (!cachePerTransaction) {
+            return LocalDateTime.now(clock);
+        }
+        return scope.computeIfAbsent(() -> LocalDateTime.now(clock));
+    }
+}
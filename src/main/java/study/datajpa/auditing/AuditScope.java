@@ -0,0 +1,71 @@
+package study.datajpa.auditing;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * 값을 트랜잭션(없으면 요청) 동안 한 번만 계산한다. 둘 다 없으면 매번 계산한다.
+ * 인스턴스 자신을 트랜잭션 리소스 키로 쓰므로 컨텍스트(빈)마다 값이 따로 잡히고,
+ * REQUIRES_NEW 로 바깥 트랜잭션이 중단되면 안쪽 트랜잭션은 새 값을 받는다.
+ */
+public final class AuditScope<T> {
+
+    private final String attributeName;
+
+    public AuditScope(String name) {
+        this.attributeName = AuditScope.class.getName() + "." + name + "@" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    @SuppressWarnings("unchecked")
+    public T computeIfAbsent(Supplier<T> supplier) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            T value = (T) TransactionSynchronizationManager.getResource(this);
+            if (value == null) {
+                value = supplier.get();
+                TransactionSynchronizationManager.bindResource(this, value);
+                TransactionSynchronizationManager.registerSynchronization(new ScopeSynchronization(value));
+            }
+            return value;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            T value = (T) attributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+            if (value == null) {
+                value = supplier.get();
+                attributes.setAttribute(attributeName, value, RequestAttributes.SCOPE_REQUEST);
+            }
+            return value;
+        }
+
+        return supplier.get();
+    }
+
+    private class ScopeSynchronization implements TransactionSynchronization {
+
+        private final T value;
+
+        private ScopeSynchronization(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AuditScope.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AuditScope.this, value);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AuditScope.this);
+        }
+    }
+}
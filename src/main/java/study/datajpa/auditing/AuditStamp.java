@@ -0,0 +1,19 @@
+package study.datajpa.auditing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 한 번에 찍을 감사 정보 (작성자, 시각).
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AuditStamp {
+
+    private final String auditor;
+    private final LocalDateTime timestamp;
+}
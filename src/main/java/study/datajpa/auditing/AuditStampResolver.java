@@ -0,0 +1,20 @@
+package study.datajpa.auditing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대량 적재용. 작성자와 시각을 한 번 구해서 여러 엔티티에 그대로 찍는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditStampResolver {
+
+    private final AuditorAware<String> auditorAware;
+    private final AuditClock auditClock;
+
+    public AuditStamp resolve() {
+        return new AuditStamp(auditorAware.getCurrentAuditor().orElse(null), auditClock.now());
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.auditing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.Clock;
+import java.util.Optional;
+
+@Configuration
+public class AuditingConfig {
+
+    @Bean
+    public Clock auditingClock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public AuditClock auditClock(Clock auditingClock,
+                                 @Value("${datajpa.auditing.cache-per-transaction:true}") boolean cachePerTransaction) {
+        return new AuditClock(auditingClock, cachePerTransaction);
+    }
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider(AuditClock auditClock) {
+        return () -> Optional.of(auditClock.now());
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.auditing;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.entity.JpaBaseEntity;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * JpaBaseEntity 의 생성/수정 시각을 AuditClock 으로 채운다.
+ * 엔티티 리스너는 하이버네이트가 스프링 빈 컨테이너로 만들기 때문에 생성자 주입을 받을 수 있다.
+ */
+@RequiredArgsConstructor
+public class JpaBaseEntityListener {
+
+    private final AuditClock auditClock;
+
+    @PrePersist
+    public void prePersist(JpaBaseEntity target) {
+        target.markCreated(auditClock.now());
+    }
+
+    @PreUpdate
+    public void preUpdate(JpaBaseEntity target) {
+        target.markUpdated(auditClock.now());
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 작성자를 트랜잭션(요청)마다 한 번만 구한다. cachePerTransaction=false 면 쓰기마다 구한다.
+ */
+public class ScopedAuditorAware implements AuditorAware<String> {
+
+    private final Supplier<String> auditor;
+    private final boolean cachePerTransaction;
+    private final AuditScope<String> scope = new AuditScope<>("auditor");
+
+    public ScopedAuditorAware(Supplier<String> auditor, boolean cachePerTransaction) {
+        this.auditor = auditor;
+        this.cachePerTransaction = cachePerTransaction;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return Optional.ofNullable(cachePerTransaction ? scope.computeIfAbsent(auditor) : auditor.get());
+    }
+}
@@ -0,0 +1,32 @@
+package study.datajpa.auditing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.data.auditing.AuditingHandler;
+import study.datajpa.entity.BaseTimeEntity;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * AuditingEntityListener 와 같지만, 대량 적재 경로에서 이미 AuditStamp 가 찍힌 엔티티는 건너뛴다.
+ * (엔티티마다 AuditingHandler 가 리플렉션으로 필드를 채우는 비용을 없앤다.)
+ */
+@RequiredArgsConstructor
+public class StampingAuditingListener {
+
+    private final ObjectFactory<AuditingHandler> auditingHandler;
+
+    @PrePersist
+    public void touchForCreate(Object target) {
+        if (target instanceof BaseTimeEntity && ((BaseTimeEntity) target).isStamped()) {
+            return;
+        }
+        auditingHandler.getObject().markCreated(target);
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        auditingHandler.getObject().markModified(target);
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.CacheRegionStatsDto;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 2차 캐시 리전별 hit/miss/put (하이버네이트 통계) + eviction (JCache 통계 MBean) 조회.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/cache/stats")
+    public List<CacheRegionStatsDto> stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> evictions = cacheEvictions();
+
+        List<CacheRegionStatsDto> result = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            result.add(new CacheRegionStatsDto(region,
+                    regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount(),
+                    regionStatistics.getElementCountInMemory(),
+                    evictions.getOrDefault(region, 0L)));
+        }
+        return result;
+    }
+
+    private Map<String, Long> cacheEvictions() {
+        Map<String, Long> evictions = new HashMap<>();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                evictions.put(name.getKeyProperty("Cache"), (Long) server.getAttribute(name, "CacheEvictions"));
+            }
+        } catch (JMException e) {
+            // 통계 MBean이 없으면 eviction은 0으로 본다.
+        }
+        return evictions;
+    }
+}
@@ -1,24 +1,50 @@
 package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TotalAwarePage;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.CountCache;
+import study.datajpa.repository.InvalidCursorException;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberAsyncService;
+import study.datajpa.service.MemberBulkIngestService;
+import study.datajpa.service.MemberExportService;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberBulkIngestService memberBulkIngestService;
+    private final CountCache countCache;
+    private final MemberAsyncService memberAsyncService;
+
+    @Value("${spring.data.web.pageable.max-page-size:2000}") // keyset 도 offset 페이징과 같은 상한
+    private int maxPageSize;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -32,23 +58,90 @@ public class MemberController {
     }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5/*, sort = "username"*/) Pageable pageable) {
+    public TotalAwarePage<MemberDto> list(@PageableDefault(size = 5/*, sort = "username"*/) Pageable pageable) {
 //        PageRequest request = PageRequest.of(1, 2);
-        return memberRepository.findAll(pageable)
+//        return memberRepository.findAll(pageable)
 //        Page<MemberDto> map = memberRepository.findAll(request)
 //                .map(m -> new MemberDto(m.getId(), m.getUsername(), null));
 //                .map(member -> new MemberDto(member));
-                .map(MemberDto::new);
+//                .map(MemberDto::new);
 //        MyPageDto<Member> 만들어서 page--> MyPageDto로 변환해서 사용
 
 //        return map;
+        // DTO 직접 조회 + team join (teamName 포함)
+        return countCache.toPage(memberRepository.findMemberDtoSlice(pageable), "Member.count", memberRepository::count); // 마지막 페이지면 count 생략, 아니면 캐시된 count
+    }
+
+    // findByAge(Pageable) 의 count 생략/캐시 버전
+    @GetMapping("/members/age/{age}")
+    public TotalAwarePage<MemberDto> listByAge(@PathVariable("age") int age, @PageableDefault(size = 5) Pageable pageable) {
+        return countCache.toPage(memberRepository.findSliceByAge(age, pageable).map(MemberDto::new),
+                "Member.countByAge:" + age, () -> memberRepository.countByAge(age));
+    }
+
+    @GetMapping("/members/keyset")
+    public CursorPage<MemberDto> keyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "size", defaultValue = "5") int size) {
+        return memberRepository.findKeysetPage(cursor, keysetSize(size))
+                .map(MemberDto::new);
+    }
+
+    @GetMapping("/members/async")
+    public CompletableFuture<Page<MemberDto>> listAsync(@PageableDefault(size = 5) Pageable pageable) {
+        return memberAsyncService.findMemberDto(pageable);
+    }
+
+    @GetMapping("/members/async/keyset")
+    public CompletableFuture<CursorPage<MemberDto>> keysetAsync(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "size", defaultValue = "5") int size) {
+        return memberAsyncService.findKeysetPage(cursor, keysetSize(size));
+    }
+
+    // PageableHandlerMethodArgumentResolver 와 같이 1 ~ max-page-size 로 맞춘다.
+    private int keysetSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    @GetMapping("/members/async/username/{username}")
+    public CompletableFuture<List<MemberDto>> findByUsernameAsync(@PathVariable("username") String username) {
+        return memberRepository.findAsyncByUsername(username)
+                .thenApply(members -> members.stream()
+                        .map(MemberDto::new)
+                        .collect(Collectors.toList()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidCursor(InvalidCursorException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String saturated(RejectedExecutionException e) {
+        return e.getMessage();
+    }
+
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"members.csv\"");
+            memberExportService.exportCsv(response.getOutputStream());
+        } else {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            memberExportService.exportNdjson(response.getOutputStream());
+        }
     }
 
 //    @PostConstruct
     public void init() {
 //        memberRepository.save(new Member("userA"));
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("User" + i, i));
+            members.add(new Member("User" + i, i));
         }
+        memberBulkIngestService.ingest(members);
     }
 }
@@ -0,0 +1,116 @@
+package study.datajpa.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code @Transactional(readOnly = true)} 트랜잭션은 정상 상태인 복제본으로, 나머지는 primary로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 바인딩되지 않으므로 반드시 LazyConnectionDataSourceProxy로 감싸서 사용한다.
+ * 사용 가능한 복제본이 없으면 primary로 fallback 한다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<ReplicaDataSource> replicas;
+    private final RoutingDataSourceProperties.Balancing balancing;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaDataSource> replicas,
+                                      RoutingDataSourceProperties.Balancing balancing, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            for (ReplicaDataSource replica : candidates()) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    log.warn("replica {} unavailable, trying next: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 정상 상태 복제본을 시도할 순서대로 반환한다.
+     */
+    List<ReplicaDataSource> candidates() {
+        List<ReplicaDataSource> healthy = new ArrayList<>();
+        for (ReplicaDataSource replica : replicas) {
+            if (replica.isHealthy()) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.size() < 2) {
+            return healthy;
+        }
+
+        if (balancing == RoutingDataSourceProperties.Balancing.LEAST_CONNECTIONS) {
+            healthy.sort(Comparator.comparingInt(ReplicaDataSource::getActiveConnections));
+            return healthy;
+        }
+        int start = Math.floorMod(sequence.getAndIncrement(), healthy.size());
+        List<ReplicaDataSource> ordered = new ArrayList<>(healthy.subList(start, healthy.size()));
+        ordered.addAll(healthy.subList(0, start));
+        return ordered;
+    }
+
+    void checkHealth() {
+        for (ReplicaDataSource replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            replica.checkHealth();
+            if (wasHealthy != replica.isHealthy()) {
+                log.info("replica {} is now {}", replica.getName(), replica.isHealthy() ? "UP" : "DOWN");
+            }
+        }
+    }
+
+    public List<ReplicaDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(ReplicaDataSource::close);
+        if (primary instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) primary).close();
+            } catch (Exception e) {
+                // 종료 중이므로 무시
+            }
+        }
+    }
+}
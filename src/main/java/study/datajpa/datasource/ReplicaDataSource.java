@@ -0,0 +1,78 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 읽기 전용 복제본 하나. 헬스 체크 결과와 현재 사용 중인 커넥션 수를 들고 있다.
+ */
+public class ReplicaDataSource {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    public ReplicaDataSource(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public Connection getConnection() throws SQLException {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            // 연결 자체가 실패한 경우(SQLState 08xxx)만 내린다. 풀 대기 시간 초과 같은 일시적 포화는 다음 후보로만 넘긴다.
+            if (isConnectionFailure(e)) {
+                healthy = false;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            if (cause.getSQLState() != null && cause.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void checkHealth() {
+        try (Connection connection = dataSource.getConnection()) {
+            healthy = connection.isValid(1);
+        } catch (SQLException e) {
+            healthy = false;
+        }
+    }
+
+    public int getActiveConnections() {
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    public void close() {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                // 종료 중이므로 무시
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datajpa.routing.enabled=true 일 때 spring.datasource 를 primary로, datajpa.routing.replicas 를 읽기 전용 복제본으로 쓴다.
+ * 로컬에서는 --spring.profiles.active=replicas 로 in-memory H2 복제본을 띄울 수 있다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        RoutingDataSourceProperties routing) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            RoutingDataSourceProperties.Replica replica = routing.getReplicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword())
+                    .driverClassName(replica.getDriverClassName() != null ? replica.getDriverClassName() : dataSourceProperties.getDriverClassName())
+                    .build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaDataSource("replica-" + i, dataSource));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, routing.getBalancing(), routing.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        // 실제 커넥션을 첫 쿼리 시점까지 미뤄야 readOnly 여부를 보고 라우팅할 수 있다.
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,32 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("datajpa.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+    private Balancing balancing = Balancing.ROUND_ROBIN;
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Balancing {ROUND_ROBIN, LEAST_CONNECTIONS}
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkIngestResult {
+
+    /**
+     * JDBC 드라이버가 영향받은 행 수를 알려주지 않은 경우
+     */
+    public static final long UNKNOWN = -1;
+
+    private final long count;
+    private final long elapsedMillis;
+
+    public BulkIngestResult(long count, long elapsedMillis) {
+        this.count = count;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isCountKnown() {
+        return count != UNKNOWN;
+    }
+
+    public long getRowsPerSecond() {
+        if (!isCountKnown()) {
+            return UNKNOWN;
+        }
+        return elapsedMillis == 0 ? count * 1000 : count * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+@Getter
+public class CacheRegionStatsDto {
+
+    private final String region;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long elementCountInMemory;
+    private final long evictionCount;
+
+    public CacheRegionStatsDto(String region, long hitCount, long missCount, long putCount,
+                               long elementCountInMemory, long evictionCount) {
+        this.region = region;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCountInMemory = elementCountInMemory;
+        this.evictionCount = evictionCount;
+    }
+
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * keyset(seek) 페이징 결과. offset 대신 마지막 row의 키를 담은 nextCursor로 다음 페이지를 요청한다.
+ */
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new CursorPage<>(converted, nextCursor, hasNext);
+    }
+}
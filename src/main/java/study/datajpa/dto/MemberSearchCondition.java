@@ -0,0 +1,17 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 검색 조건. 값이 비어 있는 조건은 무시한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSearchCondition {
+
+    private String username;
+    private String teamName;
+}
@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * totalElements가 정확한 값인지(count 쿼리 또는 마지막 페이지로 추론) 캐시된 값인지 알려주는 Page.
+ */
+public class TotalAwarePage<T> extends PageImpl<T> {
+
+    private final boolean totalExact;
+
+    public TotalAwarePage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
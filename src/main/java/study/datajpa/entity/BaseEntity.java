@@ -5,14 +5,15 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.auditing.AuditStamp;
+import study.datajpa.auditing.StampingAuditingListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(StampingAuditingListener.class)
 @MappedSuperclass
 @Getter
 public class BaseEntity extends BaseTimeEntity {
@@ -24,5 +25,19 @@ public class BaseEntity extends BaseTimeEntity {
     @LastModifiedBy
     private String lastModifiedBy;
 
+    @Override
+    public void stamp(AuditStamp stamp) {
+        super.stamp(stamp);
+        createBy = stamp.getAuditor();
+        lastModifiedBy = stamp.getAuditor();
+    }
 
+    @Override
+    protected void copyAuditFrom(BaseTimeEntity source) {
+        super.copyAuditFrom(source);
+        if (source instanceof BaseEntity) {
+            createBy = ((BaseEntity) source).createBy;
+            lastModifiedBy = ((BaseEntity) source).lastModifiedBy;
+        }
+    }
 }
@@ -3,14 +3,15 @@ package study.datajpa.entity;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.auditing.AuditStamp;
+import study.datajpa.auditing.StampingAuditingListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(StampingAuditingListener.class)
 @MappedSuperclass
 @Getter
 public class BaseTimeEntity {
@@ -21,4 +22,22 @@ public class BaseTimeEntity {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    /**
+     * 대량 적재용. 감사 필드를 직접 채우고, 저장 시 StampingAuditingListener 는 이 엔티티를 건너뛴다.
+     */
+    public void stamp(AuditStamp stamp) {
+        createdDate = stamp.getTimestamp();
+        lastModifiedDate = stamp.getTimestamp();
+    }
+
+    // 준영속 복사본(Member.detachedCopy)이 원본의 감사 필드를 그대로 갖도록 한다.
+    protected void copyAuditFrom(BaseTimeEntity source) {
+        createdDate = source.createdDate;
+        lastModifiedDate = source.lastModifiedDate;
+    }
+
+    public boolean isStamped() {
+        return createdDate != null;
+    }
 }
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -24,9 +25,14 @@ public class Item implements Persistable<String> {
     private String id;
 //    private long id; // 기본타입은 'null'를 넣을 수 없다. ---> 0으로 판단
 
+    @Getter
     @CreatedDate
     private LocalDateTime createdDate;
 
+    @Getter
+    @LastModifiedDate
+    private LocalDateTime lastModifiedDate;
+
     public Item(String id) {
         this.id = id;
     }
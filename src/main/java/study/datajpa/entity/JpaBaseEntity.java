@@ -1,15 +1,16 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import study.datajpa.auditing.JpaBaseEntityListener;
 
 import javax.persistence.Column;
+import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Getter
+@EntityListeners(JpaBaseEntityListener.class) // 시각은 주입받은 AuditClock 으로 채운다
 @MappedSuperclass
 public class JpaBaseEntity {
 
@@ -17,15 +18,12 @@ public class JpaBaseEntity {
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
-    @PrePersist
-    public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+    public void markCreated(LocalDateTime now) {
         createdDate = now;
         updatedDate = now;
     }
 
-    @PreUpdate
-    public void preUpdate() {
-        updatedDate = LocalDateTime.now();
+    public void markUpdated(LocalDateTime now) {
+        updatedDate = now;
     }
 }
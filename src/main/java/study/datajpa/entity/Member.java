@@ -1,6 +1,10 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.lookup.MemberLookupInvalidationListener;
+import study.datajpa.repository.CountCacheInvalidationListener;
 
 import javax.persistence.*;
 
@@ -11,13 +15,26 @@ import javax.persistence.*;
 @ToString(of = {"id", "username", "age"})
 @NamedQuery(
         name = "Member.findByUsername",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = {
+                @QueryHint(name = "org.hibernate.cacheable", value = "true"), // 쿼리 캐시 (id 목록만 캐시 → member 리전에서 엔티티 조회)
+                @QueryHint(name = "org.hibernate.cacheRegion", value = "member.byUsername")
+        }
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = {@NamedAttributeNode("team")})
+@Table(indexes = {
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"), // keyset 페이징 (username, id)
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team_id", columnList = "team_id") // FK 인덱스를 자동으로 만들지 않는 DB도 있다.
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
+@EntityListeners({CountCacheInvalidationListener.class, MemberLookupInvalidationListener.class})
 public class Member extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // 시퀀스 한 번에 50개씩 할당 (pooled-lo)
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -28,6 +45,10 @@ public class Member extends BaseEntity {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    @Version // 낙관적 락 (update ... where version = ?)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     public Member(String username) {
         this.username = username;
     }
@@ -46,6 +67,19 @@ public class Member extends BaseEntity {
         this.age = age;
     }
 
+    /**
+     * id, version, 감사 필드까지 같은 준영속 복사본. save(merge) 하면 원본과 같은 행을 version 검사와 함께 수정한다.
+     * team 은 호출하는 쪽의 영속성 컨텍스트에서 구한 것을 받는다. (team.members 에는 추가하지 않는다)
+     */
+    public Member detachedCopy(Team team) {
+        Member copy = new Member(username, age);
+        copy.id = id;
+        copy.version = version;
+        copy.team = team;
+        copy.copyAuditFrom(this);
+        return copy;
+    }
+
     public void changeTeam(Team team) {
         this.team = team;
         team.getMembers().add(this);
@@ -0,0 +1,179 @@
+package study.datajpa.lookup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * id 로 회원을 찾는다. (MemberLookupConverter, /members2/{id})
+ * <ol>
+ *     <li>요청 단위 identity map - 같은 요청에서 같은 id 는 한 번만 조회</li>
+ *     <li>공유 캐시 (datajpa.member-lookup.shared-ttl, 기본 0 = 사용 안 함) - 짧은 TTL 로 자주 찾는 id 를 재사용.
+ *     shared-max-size 를 넘으면 오래된 것부터 버리고, Member 가 수정/삭제되면 MemberLookupInvalidationListener 가 비운다.</li>
+ *     <li>single-flight - 같은 id 를 동시에 찾으면 DB 조회는 한 번, 나머지는 결과를 기다린다</li>
+ * </ol>
+ * 직접 DB 에서 조회한 호출은 자기 영속성 컨텍스트(open-in-view)의 엔티티를 그대로 받는다.
+ * 그 엔티티는 다른 스레드에 넘기지 않는다. 공유하는 것은 값(MemberSnapshot)뿐이고, 공유 캐시나 single-flight 로
+ * 받은 호출은 매번 새 준영속 복사본(Member.detachedCopy)을 받는다. 복사본은 id, version, 감사 필드가 같으므로
+ * save(merge) 하면 version 검사와 함께 같은 행을 수정한다. 팀은 호출한 쪽의 영속성 컨텍스트에서 getReference 로 붙인다.
+ * (member.lookup{result=request|shared|coalesced|loaded})
+ */
+@Slf4j
+@Component
+public class MemberLookup {
+
+    private static final String REQUEST_ATTRIBUTE = MemberLookup.class.getName() + ".members";
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+
+    private final Cache<Long, Optional<MemberSnapshot>> shared;
+    private final Map<Long, CompletableFuture<Optional<MemberSnapshot>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter requestHits;
+    private final Counter sharedHits;
+    private final Counter coalesced;
+    private final Counter loaded;
+
+    public MemberLookup(MemberRepository memberRepository, EntityManager em, MeterRegistry meterRegistry,
+                        @Value("${datajpa.member-lookup.shared-ttl:0s}") Duration sharedTtl,
+                        @Value("${datajpa.member-lookup.shared-max-size:10000}") long sharedMaxSize) {
+        this.memberRepository = memberRepository;
+        this.em = em;
+        this.shared = sharedTtl.isZero() || sharedTtl.isNegative() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(sharedTtl)
+                .maximumSize(sharedMaxSize)
+                .build();
+        this.requestHits = counter(meterRegistry, "request");
+        this.sharedHits = counter(meterRegistry, "shared");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.loaded = counter(meterRegistry, "loaded");
+    }
+
+    public Optional<Member> find(Long id) {
+        Map<Long, Optional<Member>> identityMap = requestIdentityMap();
+        if (identityMap != null) {
+            Optional<Member> member = identityMap.get(id);
+            if (member != null) {
+                requestHits.increment();
+                return member;
+            }
+        }
+
+        Optional<Member> member = findShared(id);
+        if (identityMap != null) {
+            identityMap.put(id, member);
+        }
+        return member;
+    }
+
+    private Optional<Member> findShared(Long id) {
+        if (shared != null) {
+            Optional<MemberSnapshot> snapshot = shared.getIfPresent(id);
+            if (snapshot != null) {
+                sharedHits.increment();
+                return snapshot.map(this::toMember);
+            }
+        }
+
+        CompletableFuture<Optional<MemberSnapshot>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<MemberSnapshot>> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join().map(this::toMember);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            Optional<Member> member = memberRepository.findById(id);
+            Optional<MemberSnapshot> snapshot = member.map(this::toSnapshot);
+            loaded.increment();
+            if (shared != null) {
+                shared.put(id, snapshot);
+            }
+            mine.complete(snapshot);
+            return member; // 조회한 쪽은 자기 영속성 컨텍스트의 엔티티를 그대로 쓴다
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private MemberSnapshot toSnapshot(Member member) {
+        // 프록시를 초기화하지 않고 팀 id 만 읽는다
+        Object teamId = member.getTeam() == null ? null
+                : em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(member.getTeam());
+        return new MemberSnapshot(member.detachedCopy(null), (Long) teamId);
+    }
+
+    private Member toMember(MemberSnapshot snapshot) {
+        return snapshot.member.detachedCopy(snapshot.teamId == null ? null : em.getReference(Team.class, snapshot.teamId));
+    }
+
+    public void evict(Long id) {
+        if (shared != null) {
+            shared.invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        if (shared != null) {
+            shared.invalidateAll();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Optional<Member>> requestIdentityMap() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, Optional<Member>> map = (Map<Long, Optional<Member>>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (map == null) {
+            map = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, map, RequestAttributes.SCOPE_REQUEST);
+        }
+        return map;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("member.lookup").tag("result", result).register(meterRegistry);
+    }
+
+    /**
+     * 스레드 사이에 공유하는 값. member 는 어떤 영속성 컨텍스트에도 속하지 않는 복사본이고 밖으로 내보내지 않는다.
+     * 지연 로딩 프록시(team)는 id 만 담는다.
+     */
+    private static class MemberSnapshot {
+        final Member member;
+        final Long teamId;
+
+        MemberSnapshot(Member member, Long teamId) {
+            this.member = member;
+            this.teamId = teamId;
+        }
+    }
+}
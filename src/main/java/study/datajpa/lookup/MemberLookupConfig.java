@@ -0,0 +1,18 @@
+package study.datajpa.lookup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class MemberLookupConfig implements WebMvcConfigurer {
+
+    private final MemberLookup memberLookup;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new MemberLookupConverter(memberLookup));
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.lookup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+/**
+ * @PathVariable("id") Member 변환. 스프링 데이터 DomainClassConverter 보다 먼저 선택되어 MemberLookup 을 거친다.
+ */
+@RequiredArgsConstructor
+public class MemberLookupConverter implements Converter<String, Member> {
+
+    private final MemberLookup memberLookup;
+
+    @Override
+    public Member convert(String source) {
+        if (!StringUtils.hasText(source)) {
+            return null;
+        }
+        return memberLookup.find(Long.valueOf(source.trim())).orElse(null);
+    }
+}
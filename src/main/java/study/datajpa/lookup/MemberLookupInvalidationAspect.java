@@ -0,0 +1,27 @@
+package study.datajpa.lookup;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+
+/**
+ * 벌크 연산(@Modifying)은 엔티티 리스너를 거치지 않고 어떤 id 가 바뀌었는지도 모르므로 공유 캐시를 통째로 비운다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberLookupInvalidationAspect {
+
+    private final MemberLookup memberLookup;
+
+    @AfterReturning("target(study.datajpa.repository.MemberRepository)")
+    public void evictAfterModifying(JoinPoint joinPoint) {
+        if (((MethodSignature) joinPoint.getSignature()).getMethod().isAnnotationPresent(Modifying.class)) {
+            memberLookup.evictAll();
+        }
+    }
+}
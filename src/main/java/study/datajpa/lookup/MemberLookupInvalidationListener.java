@@ -0,0 +1,37 @@
+package study.datajpa.lookup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 엔티티 리스너. 수정/삭제된 회원을 MemberLookup 공유 캐시에서 비운다.
+ * 커밋 전에 비운 사이 다른 스레드가 이전 값을 다시 캐시할 수 있으므로 커밋 후에 한 번 더 비운다.
+ * (MemberLookup 이 MemberRepository 를 거쳐 EntityManagerFactory 에 의존하므로 지연 조회한다.)
+ */
+@RequiredArgsConstructor
+public class MemberLookupInvalidationListener {
+
+    private final ObjectProvider<MemberLookup> memberLookup;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Member member) {
+        MemberLookup lookup = memberLookup.getObject();
+        Long id = member.getId();
+        lookup.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lookup.evict(id);
+                }
+            });
+        }
+    }
+}
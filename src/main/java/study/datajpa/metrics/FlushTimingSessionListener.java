@@ -0,0 +1,21 @@
+package study.datajpa.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * hibernate.session.events.auto 로 세션마다 생성된다.
+ */
+public class FlushTimingSessionListener extends BaseSessionEventListener {
+
+    private long flushStart;
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RepositoryCallStats.flushed(System.nanoTime() - flushStart);
+    }
+}
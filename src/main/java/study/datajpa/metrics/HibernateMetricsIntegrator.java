@@ -0,0 +1,58 @@
+package study.datajpa.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HibernateMetricsIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RepositoryCallStats.entityLoaded());
+
+        // 프록시 초기화(IMMEDIATE_LOAD)와 컬렉션 초기화 = 지연 로딩.
+        // 기존 리스너를 감싸서, 초기화하는 동안 실제로 실행된 SQL 만 그 연관관계에 돌린다. (StatementCountingListener)
+        List<LoadEventListener> loads = listeners(registry.getEventListenerGroup(EventType.LOAD));
+        registry.setListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType != LoadEventListener.IMMEDIATE_LOAD) {
+                loads.forEach(listener -> listener.onLoad(event, loadType));
+                return;
+            }
+            LazyLoadTracker.initializing(event.getEntityClassName(), () -> {
+                loads.forEach(listener -> listener.onLoad(event, loadType));
+                return null;
+            });
+        });
+
+        List<InitializeCollectionEventListener> collections = listeners(registry.getEventListenerGroup(EventType.INIT_COLLECTION));
+        registry.setListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                LazyLoadTracker.initializing(event.getCollection().getRole(), () -> {
+                    for (InitializeCollectionEventListener listener : collections) {
+                        listener.onInitializeCollection(event);
+                    }
+                    return null;
+                }));
+    }
+
+    private static <T> List<T> listeners(EventListenerGroup<T> group) {
+        List<T> listeners = new ArrayList<>();
+        group.listeners().forEach(listeners::add);
+        return listeners;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
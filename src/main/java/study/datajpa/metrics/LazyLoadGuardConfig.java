@@ -0,0 +1,23 @@
+package study.datajpa.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class LazyLoadGuardConfig implements WebMvcConfigurer {
+
+    @Value("${datajpa.lazy-load-guard.mode:WARN}")
+    private LazyLoadTracker.Mode mode;
+
+    @Value("${datajpa.lazy-load-guard.max-lazy-loads:10}")
+    private int maxLazyLoads;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (mode != LazyLoadTracker.Mode.OFF) {
+            registry.addInterceptor(new LazyLoadGuardInterceptor(maxLazyLoads, mode));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청 단위로 지연 로딩이 실행한 SQL 수를 세서 maxLazyLoads를 넘으면 경고(WARN)하거나 그 자리에서 실패(FAIL)시킨다.
+ * 비동기 요청(CompletableFuture 반환)은 첫 디스패치가 afterCompletion 없이 afterConcurrentHandlingStarted 로 끝나고,
+ * 결과를 쓰는 ASYNC 디스패치에서 preHandle 부터 다시 호출된다. 디스패치마다 스레드의 tracker 를 열고 닫는다.
+ */
+@Slf4j
+public class LazyLoadGuardInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String TRACKER = LazyLoadGuardInterceptor.class.getName() + ".TRACKER";
+
+    private final int maxLazyLoads;
+    private final LazyLoadTracker.Mode mode;
+
+    public LazyLoadGuardInterceptor(int maxLazyLoads, LazyLoadTracker.Mode mode) {
+        this.maxLazyLoads = maxLazyLoads;
+        this.mode = mode;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(TRACKER, LazyLoadTracker.open(maxLazyLoads, mode));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        close(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close(request);
+    }
+
+    private void close(HttpServletRequest request) {
+        LazyLoadTracker tracker = (LazyLoadTracker) request.getAttribute(TRACKER);
+        if (tracker == null) {
+            return;
+        }
+        request.removeAttribute(TRACKER);
+        tracker.close();
+        if (tracker.isExceeded()) {
+            log.warn("N+1 suspected: {} {} -> {}", request.getMethod(), request.getRequestURI(), tracker.report());
+        }
+    }
+}
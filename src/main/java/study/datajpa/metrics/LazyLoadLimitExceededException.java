@@ -0,0 +1,8 @@
+package study.datajpa.metrics;
+
+public class LazyLoadLimitExceededException extends RuntimeException {
+
+    public LazyLoadLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 범위(요청, 테스트) 안에서 실행된 SQL 을 세고, 그중 지연 로딩이 실행한 SQL 을 연관관계별로 센다.
+ * 프록시 초기화는 엔티티 이름으로, 컬렉션 초기화는 role(예: study.datajpa.entity.Team.members)로 기록된다.
+ * 영속성 컨텍스트나 2차 캐시에서 채워져 SQL 이 나가지 않은 초기화, 배치 페치로 한 번에 채워진 초기화는 세지 않는다.
+ */
+public class LazyLoadTracker {
+
+    public enum Mode {OFF, WARN, FAIL}
+
+    private static final ThreadLocal<LazyLoadTracker> CURRENT = new ThreadLocal<>();
+
+    private final LazyLoadTracker parent;
+    private final int maxLazyLoads;
+    private final Mode mode;
+    private final Map<String, Integer> loads = new LinkedHashMap<>();
+    private int total;
+    private int statements;
+    private String initializing; // 지금 초기화 중인 연관관계
+
+    private LazyLoadTracker(LazyLoadTracker parent, int maxLazyLoads, Mode mode) {
+        this.parent = parent;
+        this.maxLazyLoads = maxLazyLoads;
+        this.mode = mode;
+    }
+
+    public static LazyLoadTracker open(int maxLazyLoads, Mode mode) {
+        LazyLoadTracker tracker = new LazyLoadTracker(CURRENT.get(), maxLazyLoads, mode);
+        CURRENT.set(tracker);
+        return tracker;
+    }
+
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    /**
+     * association 초기화 중에 실행된 SQL 을 association 의 지연 로딩으로 센다. (HibernateMetricsIntegrator)
+     */
+    static <T> T initializing(String association, Supplier<T> load) {
+        LazyLoadTracker tracker = CURRENT.get();
+        if (tracker == null) {
+            return load.get();
+        }
+        String previous = tracker.initializing;
+        tracker.initializing = association;
+        T result;
+        try {
+            result = load.get();
+        } finally {
+            tracker.initializing = previous;
+        }
+        // JDBC 호출 중이 아니라 초기화가 끝난 뒤에 실패시킨다.
+        if (tracker.mode == Mode.FAIL && tracker.isExceeded()) {
+            throw new LazyLoadLimitExceededException(tracker.report());
+        }
+        return result;
+    }
+
+    /**
+     * p6spy 가 SQL 실행을 알려 준다. (StatementCountingListener)
+     */
+    static void statementExecuted() {
+        LazyLoadTracker tracker = CURRENT.get();
+        if (tracker == null) {
+            return;
+        }
+        tracker.statements++;
+        if (tracker.initializing == null) {
+            return;
+        }
+        tracker.loads.merge(tracker.initializing, 1, Integer::sum);
+        tracker.total++;
+    }
+
+    /**
+     * 지연 로딩이 실행한 SQL 수
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 범위 안에서 실행된 전체 SQL 수
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    public Map<String, Integer> getLoads() {
+        return Collections.unmodifiableMap(loads);
+    }
+
+    public boolean isExceeded() {
+        return total > maxLazyLoads;
+    }
+
+    public String report() {
+        return "lazy load statements " + total + " (max " + maxLazyLoads + ", all statements " + statements + ") " + loads;
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer metricsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new HibernateMetricsIntegrator()));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, FlushTimingSessionListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.metrics;
+
+/**
+ * 리포지토리 호출 한 번 동안 발생한 SQL 실행 수, 읽은 row 수, 로딩된 엔티티 수, flush 시간.
+ * 스레드별로 열리고, 중첩 호출이 끝나면 바깥 호출에 합산된다.
+ */
+public class RepositoryCallStats {
+
+    private static final ThreadLocal<RepositoryCallStats> CURRENT = new ThreadLocal<>();
+
+    private final RepositoryCallStats parent;
+    private long statements;
+    private long rows;
+    private long entitiesLoaded;
+    private long flushNanos;
+
+    private RepositoryCallStats(RepositoryCallStats parent) {
+        this.parent = parent;
+    }
+
+    public static RepositoryCallStats open() {
+        RepositoryCallStats stats = new RepositoryCallStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        parent.statements += statements;
+        parent.rows += rows;
+        parent.entitiesLoaded += entitiesLoaded;
+        parent.flushNanos += flushNanos;
+        CURRENT.set(parent);
+    }
+
+    static void statementExecuted() {
+        RepositoryCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void rowFetched() {
+        RepositoryCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows++;
+        }
+    }
+
+    static void entityLoaded() {
+        RepositoryCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    static void flushed(long nanos) {
+        RepositoryCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.flushNanos += nanos;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+}
@@ -0,0 +1,88 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member/Team/Item 리포지토리 메서드마다 실행 시간, SQL 실행 수, row 수, 로딩 엔티티 수, flush 시간을
+ * percentile histogram으로 기록한다. (/actuator/prometheus, /actuator/metrics/repository.invocations)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("target(study.datajpa.repository.MemberRepository)" +
+            " || target(study.datajpa.repository.TeamRepository)" +
+            " || target(study.datajpa.repository.ItemRepository)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (signature.getMethod().getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+
+        Tags tags = Tags.of("repository", repositoryName(joinPoint.getTarget()), "method", signature.getName());
+        RepositoryCallStats stats = RepositoryCallStats.open();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stats.close();
+
+            Timer.builder("repository.invocations")
+                    .tags(tags).tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            summary("repository.statements", tags).record(stats.getStatements());
+            summary("repository.rows", tags).record(stats.getRows());
+            summary("repository.entities.loaded", tags).record(stats.getEntitiesLoaded());
+            if (stats.getFlushNanos() > 0) { // flush 가 없던 호출의 0ns 가 분포를 덮지 않도록
+                Timer.builder("repository.flush")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(stats.getFlushNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    private String repositoryName(Object target) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(target.getClass())) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("study.datajpa.")) {
+                return type.getSimpleName();
+            }
+        }
+        return target.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.metrics;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy가 감싼 JDBC 호출에서 SQL 실행 수와 ResultSet row 수를 센다. (리포지토리 호출별 통계, 지연 로딩 가드)
+ */
+@Component
+public class StatementCountingListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RepositoryCallStats.statementExecuted();
+        LazyLoadTracker.statementExecuted();
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            RepositoryCallStats.rowFetched();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package study.datajpa.repository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 큰 IN 목록 조회를 고정 크기 청크로 나눠서 실행하고, 결과를 입력 순서대로 돌려준다.
+ * 각 청크의 파라미터 개수는 2의 거듭제곱으로 패딩해서 (마지막 값 반복) 쿼리 플랜/Prepared Statement 를 재사용한다.
+ * <p>
+ * 청크는 같은 EntityManager 로 순서대로 실행한다. EntityManager 는 스레드 안전하지 않고,
+ * 다른 EntityManager 로 병렬 조회하면 호출자의 영속성 컨텍스트에 없는 준영속 엔티티가 돌아오기 때문이다.
+ */
+public final class BatchLookup {
+
+    public static final int CHUNK_SIZE = 512;
+
+    private BatchLookup() {
+    }
+
+    /**
+     * 식별자로 조회. 영속성 컨텍스트에 이미 있는 엔티티는 DB를 조회하지 않는다.
+     */
+    public static <T> List<T> findAllById(EntityManager em, Class<T> type, Collection<Long> ids,
+                                          Function<List<Long>, List<T>> query, Function<T, Long> idOf) {
+        Map<Long, T> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct(ids)) {
+            T managed = PersistenceContextLookup.findManaged(em, type, id);
+            if (managed != null) {
+                found.put(id, managed);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        for (T entity : findAll(missing, query)) {
+            found.put(idOf.apply(entity), entity);
+        }
+
+        List<T> result = new ArrayList<>(found.size());
+        for (Long id : distinct(ids)) {
+            T entity = found.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 유일하지 않은 키(username 등)로 조회. 키 하나에 여러 건이 있으면 조회된 순서대로 이어 붙인다.
+     */
+    public static <T, K> List<T> findAllByKey(Collection<K> keys, Function<List<K>, List<T>> query, Function<T, K> keyOf) {
+        Map<K, List<T>> grouped = new LinkedHashMap<>();
+        for (T entity : findAll(new ArrayList<>(distinct(keys)), query)) {
+            grouped.computeIfAbsent(keyOf.apply(entity), k -> new ArrayList<>()).add(entity);
+        }
+
+        List<T> result = new ArrayList<>();
+        for (K key : distinct(keys)) {
+            result.addAll(grouped.getOrDefault(key, List.of()));
+        }
+        return result;
+    }
+
+    static <T, K> List<T> findAll(List<K> keys, Function<List<K>, List<T>> query) {
+        List<T> result = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            List<K> chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size()));
+            result.addAll(query.apply(pad(chunk)));
+        }
+        return result;
+    }
+
+    static <K> List<K> pad(List<K> chunk) {
+        int size = Integer.highestOneBit(chunk.size());
+        if (size < chunk.size()) {
+            size <<= 1;
+        }
+        List<K> padded = new ArrayList<>(size);
+        padded.addAll(chunk);
+        K last = chunk.get(chunk.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private static <K> Collection<K> distinct(Collection<K> keys) {
+        Collection<K> distinct = new LinkedHashSet<>(keys);
+        distinct.removeIf(Objects::isNull);
+        return distinct;
+    }
+}
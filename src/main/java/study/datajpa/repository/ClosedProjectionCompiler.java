@@ -0,0 +1,241 @@
+package study.datajpa.repository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 닫힌 프로젝션(인터페이스, DTO)을 필요한 컬럼만 select 하는 JPQL 과 행 매퍼로 컴파일하고 타입별로 캐시한다.
+ * <ul>
+ *     <li>인터페이스: getter 마다 컬럼 하나. 중첩 인터페이스(NestedClosedProjections.TeamInfo)는 left join 한 번으로 가져온다.
+ *     결과는 값 배열을 들고 있는 가벼운 프록시 (스프링 데이터의 Map + ProxyFactory 프록시 대신).
+ *     default 메서드는 컬럼이 아니라 그대로 호출한다.</li>
+ *     <li>DTO: 생성자 파라미터 이름으로 컬럼을 고르고, 생성자 MethodHandle 로 바로 생성한다.</li>
+ * </ul>
+ * 루트 엔티티를 통째로 읽지 않으므로 영속성 컨텍스트에도 올라가지 않는다.
+ * 열린 프로젝션(@Value 로 계산하는 getter)은 컬럼 하나로 바꿀 수 없으므로 컴파일할 때 거부한다.
+ */
+@Component
+public class ClosedProjectionCompiler {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final EntityManager em;
+    private final Map<Class<?>, CompiledProjection<?>> projections = new ConcurrentHashMap<>();
+
+    public ClosedProjectionCompiler(EntityManager em) {
+        this.em = em;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompiledProjection<T> compile(Class<T> type) {
+        return (CompiledProjection<T>) projections.computeIfAbsent(type, this::doCompile);
+    }
+
+    private <T> CompiledProjection<T> doCompile(Class<T> type) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder joins = new StringBuilder();
+        EntityType<Member> root = em.getMetamodel().entity(Member.class);
+
+        Function<Object[], ?> mapper = type.isInterface()
+                ? interfaceMapper(type, root, "m", columns, joins)
+                : dtoMapper(type, columns);
+
+        String jpql = "select " + String.join(", ", columns) + " from Member m" + joins;
+        return new CompiledProjection<>(jpql, row -> type.cast(mapper.apply(row)));
+    }
+
+    private Function<Object[], Object> interfaceMapper(Class<?> type, ManagedType<?> entity, String alias,
+                                                       List<String> columns, StringBuilder joins) {
+        List<Method> getters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Value.class)) {
+                throw new IllegalArgumentException(type.getName() + "." + method.getName()
+                        + " 은 @Value 를 쓰는 열린 프로젝션입니다. 닫힌 프로젝션만 컴파일할 수 있습니다.");
+            }
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 0
+                    && propertyName(method) != null) {
+                getters.add(method);
+            }
+        }
+        getters.sort(Comparator.comparing(Method::getName)); // getMethods() 순서는 보장되지 않으므로 JPQL 을 고정한다.
+
+        Map<Method, Integer> index = new HashMap<>();
+        List<Function<Object[], Object>> accessors = new ArrayList<>();
+        for (Method getter : getters) {
+            String property = propertyName(getter);
+            Class<?> returnType = getter.getReturnType();
+            index.put(getter, accessors.size());
+
+            if (isNestedProjection(returnType)) {
+                Attribute<?, ?> association = entity.getAttribute(property);
+                EntityType<?> target = em.getMetamodel().entity(association.getJavaType());
+                String joinAlias = "j" + columns.size();
+                joins.append(" left join ").append(alias).append('.').append(property).append(' ').append(joinAlias);
+
+                // 연관 엔티티가 없으면(left join) 중첩 프로젝션도 null
+                int idColumn = columns.size();
+                columns.add(joinAlias + "." + target.getId(target.getIdType().getJavaType()).getName());
+                Function<Object[], Object> nested = interfaceMapper(returnType, target, joinAlias, columns, joins);
+                accessors.add(row -> row[idColumn] == null ? null : nested.apply(row));
+            } else {
+                int column = columns.size();
+                columns.add(alias + "." + property);
+                accessors.add(row -> row[column]);
+            }
+        }
+
+        Map<Method, MethodHandle> defaults = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.isDefault()) {
+                defaults.put(method, defaultMethod(type, method));
+            }
+        }
+
+        ClassLoader classLoader = type.getClassLoader();
+        Class<?>[] interfaces = {type};
+        return row -> {
+            Object[] values = new Object[accessors.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = accessors.get(i).apply(row);
+            }
+            return Proxy.newProxyInstance(classLoader, interfaces, new ProjectionHandler(type, index, defaults, values));
+        };
+    }
+
+    // 프록시에서 인터페이스의 default 구현을 호출하는 핸들 (invokespecial). 컴파일할 때 한 번만 만든다.
+    private static MethodHandle defaultMethod(Class<?> type, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+                    .unreflectSpecial(method, declaringClass);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + " 의 default 메서드 " + method.getName() + " 에 접근할 수 없습니다.", e);
+        }
+    }
+
+    private Function<Object[], Object> dtoMapper(Class<?> type, List<String> columns) {
+        Constructor<?> constructor = Arrays.stream(type.getConstructors())
+                .max(Comparator.comparingInt(Constructor::getParameterCount))
+                .orElseThrow(() -> new IllegalArgumentException(type.getName() + " 에 public 생성자가 없습니다."));
+        String[] names = PARAMETER_NAMES.getParameterNames(constructor);
+        if (names == null) {
+            throw new IllegalArgumentException(type.getName() + " 생성자 파라미터 이름을 알 수 없습니다. (-parameters 로 컴파일)");
+        }
+        for (String name : names) {
+            columns.add("m." + name);
+        }
+
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, names.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + " 생성자에 접근할 수 없습니다.", e);
+        }
+
+        return row -> {
+            try {
+                return (Object) handle.invokeExact(row);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static boolean isNestedProjection(Class<?> type) {
+        return type.isInterface() && !Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type)
+                && !type.getName().startsWith("java.");
+    }
+
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Character.toLowerCase(name.charAt(3)) + name.substring(4);
+        }
+        if (name.startsWith("is") && name.length() > 2 && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            return Character.toLowerCase(name.charAt(2)) + name.substring(3);
+        }
+        return null;
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class CompiledProjection<T> {
+
+        private final String jpql;
+        private final Function<Object[], T> mapper;
+
+        public T map(Object row) {
+            // 컬럼이 하나면 하이버네이트는 Object[] 대신 값 하나를 돌려준다.
+            return mapper.apply(row instanceof Object[] ? (Object[]) row : new Object[]{row});
+        }
+    }
+
+    private static class ProjectionHandler implements InvocationHandler {
+
+        private final Class<?> type;
+        private final Map<Method, Integer> index;
+        private final Map<Method, MethodHandle> defaults;
+        private final Object[] values;
+
+        ProjectionHandler(Class<?> type, Map<Method, Integer> index, Map<Method, MethodHandle> defaults, Object[] values) {
+            this.type = type;
+            this.index = index;
+            this.defaults = defaults;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Integer i = index.get(method);
+            if (i != null) {
+                return values[i];
+            }
+            MethodHandle defaultMethod = defaults.get(method);
+            if (defaultMethod != null) {
+                return defaultMethod.bindTo(proxy).invokeWithArguments(args == null ? new Object[0] : args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + Arrays.toString(values);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+    }
+}
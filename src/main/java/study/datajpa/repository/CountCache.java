@@ -0,0 +1,90 @@
+package study.datajpa.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.dto.TotalAwarePage;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Slice 결과를 Page로 바꿀 때 count 쿼리를 최대한 생략한다.
+ * <ul>
+ *     <li>다음 페이지가 없으면 total = offset + content 크기 (count 생략, 정확)</li>
+ *     <li>TTL 안에 캐시된 total이 있으면 그대로 사용 (count 생략, 부정확할 수 있음)</li>
+ *     <li>그 외에는 count 쿼리 실행 후 캐시</li>
+ * </ul>
+ * 키에 요청 값(나이 등)이 들어가므로 datajpa.count-cache.max-size 개까지만 담고, TTL 이 지난 항목은 버린다.
+ * 회원 insert/update/delete 와 @Modifying 쿼리가 실행되면 전부 무효화된다.
+ * 트랜잭션 안이면 커밋 후에 한 번 더 비운다. 커밋 전에 다른 스레드가 이전 total 을 다시 캐시했을 수 있기 때문이다.
+ */
+@Component
+public class CountCache {
+
+    private final Cache<String, Long> counts;
+
+    public CountCache(@Value("${datajpa.count-cache.ttl:5s}") Duration ttl,
+                      @Value("${datajpa.count-cache.max-size:1000}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public <T> TotalAwarePage<T> toPage(Slice<T> slice, String key, LongSupplier countQuery) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), offset + slice.getNumberOfElements(), true);
+        }
+
+        Long cached = counts.getIfPresent(key);
+        if (cached != null) {
+            return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), cached, false);
+        }
+
+        long total = countQuery.getAsLong();
+        counts.put(key, total);
+        return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), total, true);
+    }
+
+    public void invalidate() {
+        clear();
+        // 트랜잭션마다 한 번만 등록한다. (REQUIRES_NEW 로 중단된 바깥 트랜잭션과는 따로)
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new AfterCommitInvalidation());
+        }
+    }
+
+    private void clear() {
+        counts.invalidateAll();
+    }
+
+    private class AfterCommitInvalidation implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CountCache.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CountCache.this, Boolean.TRUE);
+        }
+
+        @Override
+        public void afterCommit() {
+            clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CountCache.this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+
+/**
+ * 벌크 연산(@Modifying)은 엔티티 리스너를 거치지 않으므로 따로 count 캐시를 비운다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CountCacheInvalidationAspect {
+
+    private final CountCache countCache;
+
+    @AfterReturning("target(study.datajpa.repository.MemberRepository)")
+    public void invalidateAfterModifying(JoinPoint joinPoint) {
+        if (((MethodSignature) joinPoint.getSignature()).getMethod().isAnnotationPresent(Modifying.class)) {
+            countCache.invalidate();
+        }
+    }
+}
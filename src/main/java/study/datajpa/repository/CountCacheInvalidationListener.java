@@ -0,0 +1,24 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 엔티티 리스너. 하이버네이트가 스프링 빈으로 생성하므로 CountCache를 주입받을 수 있다.
+ * 커밋 전에 호출되므로 CountCache 가 커밋 후에 한 번 더 비운다.
+ */
+@RequiredArgsConstructor
+public class CountCacheInvalidationListener {
+
+    private final CountCache countCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        countCache.invalidate();
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+/**
+ * 연관관계를 어떻게 함께 가져올지 쿼리 단위로 고른다.
+ */
+public enum FetchStrategy {
+    /** fetch join (엔티티 그래프). 쿼리 1번, 대신 컬렉션이면 행이 부모 × 자식 수만큼 늘어난다. */
+    JOIN,
+    /** 지연 로딩을 default_batch_fetch_size 개씩 IN 으로 묶어서 초기화. 쿼리 1 + N/batch 번. */
+    BATCH,
+    /**
+     * 루트 쿼리로 읽은 엔티티의 id 로 연관 엔티티를 한 번에 가져온다. (where owner.id in :loadedIds) 쿼리 1 + ids/512 번.
+     * 매핑에 @Fetch(FetchMode.SUBSELECT) 를 달면 모든 쿼리에 적용되므로 쿼리 단위로 고를 수 있게 두 번째 쿼리를 직접 실행한다.
+     */
+    SUBSELECT
+}
@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+/**
+ * 디코딩할 수 없는 keyset 커서. 클라이언트 입력 오류이므로 컨트롤러에서 400 으로 응답한다.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("잘못된 커서입니다: " + cursor, cause);
+    }
+}
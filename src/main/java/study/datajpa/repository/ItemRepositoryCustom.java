@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+
+    int persistAll(Iterable<Item> items, int batchSize);
+
+    int insertIgnoreAll(Collection<Item> items, int batchSize);
+
+    int upsertAll(Collection<Item> items, int batchSize);
+}
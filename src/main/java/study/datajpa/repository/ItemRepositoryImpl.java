@@ -0,0 +1,106 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    // 표준 SQL MERGE (H2, PostgreSQL 15+). 존재 여부를 행마다 따로 조회하지 않고 DB가 한 문장으로 처리한다.
+    // (Oracle 은 using 절에 from dual, MySQL 은 insert ignore / on duplicate key update 로 바꿔야 한다.)
+    private static final String SOURCE = "merge into item t" +
+            " using (select cast(? as varchar(255)) as id, cast(? as timestamp) as created_date," +
+            " cast(? as timestamp) as last_modified_date) s on t.id = s.id";
+
+    private static final String INSERT =
+            " when not matched then insert (id, created_date, last_modified_date) values (s.id, s.created_date, s.last_modified_date)";
+
+    private static final String INSERT_IGNORE = SOURCE + INSERT;
+
+    // created_date 는 생성 시각이자 isNew 판단 기준이므로 덮어쓰지 않는다.
+    private static final String UPSERT = SOURCE +
+            " when matched then update set last_modified_date = s.last_modified_date" + INSERT;
+
+    /**
+     * 드라이버가 건수를 알려주지 않아(Statement.SUCCESS_NO_INFO) 영향받은 행 수를 알 수 없을 때의 반환값
+     */
+    public static final int UNKNOWN_COUNT = -1;
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * id 를 직접 할당한 새 Item 을 merge(select) 없이 persist 하고 batchSize 마다 flush/clear 한다.
+     * 이미 있는 id 가 섞여 있으면 flush 시점에 제약 조건 위반이 난다. 중복 가능성이 있으면 insertIgnoreAll 을 쓴다.
+     */
+    @Override
+    public int persistAll(Iterable<Item> items, int batchSize) {
+        checkBatchSize(batchSize);
+        int count = 0;
+        for (Item item : items) {
+            em.persist(item);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    /**
+     * 이미 있는 id 는 건너뛴다. JDBC 로 바로 실행하므로 auditing 이 동작하지 않아 createdDate 가 없으면 현재 시각을 넣는다.
+     * @return 새로 추가된 행 수. 알 수 없으면 {@link #UNKNOWN_COUNT}
+     */
+    @Override
+    public int insertIgnoreAll(Collection<Item> items, int batchSize) {
+        return merge(INSERT_IGNORE, items, batchSize);
+    }
+
+    /**
+     * 이미 있는 id 는 createdDate 는 그대로 두고 lastModifiedDate 만 갱신한다.
+     * @return 추가되거나 수정된 행 수. 알 수 없으면 {@link #UNKNOWN_COUNT}
+     */
+    @Override
+    public int upsertAll(Collection<Item> items, int batchSize) {
+        return merge(UPSERT, items, batchSize);
+    }
+
+    private int merge(String sql, Collection<Item> items, int batchSize) {
+        checkBatchSize(batchSize);
+        em.flush(); // 영속성 컨텍스트에 쌓인 변경을 먼저 반영
+
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(sql, items, batchSize, (ps, item) -> {
+            ps.setString(1, item.getId());
+            ps.setTimestamp(2, Timestamp.valueOf(item.getCreatedDate() != null ? item.getCreatedDate() : now));
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+        });
+
+        int affected = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 건너뛴 중복인지 추가된 행인지 알 수 없으므로 1건으로 세지 않는다.
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    return UNKNOWN_COUNT;
+                }
+                affected += Math.max(count, 0);
+            }
+        }
+        return affected;
+    }
+
+    private static void checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 는 1 이상이어야 합니다: " + batchSize);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * (username, member_id) 튜플을 담는 불투명(opaque) 커서. 클라이언트에는 Base64 문자열로만 노출된다.
+ * username 이 null 이면 구분자 없이 id 만 담는다. ("id" vs "id:username")
+ */
+@Getter
+public class KeysetCursor {
+
+    private final String username;
+    private final Long id;
+
+    private KeysetCursor(String username, Long id) {
+        this.username = username;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(Member member) {
+        return new KeysetCursor(member.getUsername(), member.getId());
+    }
+
+    public String encode() {
+        String raw = username == null ? String.valueOf(id) : id + ":" + username;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':'); // username에 ':'가 있을 수 있으므로 첫 구분자로만 자른다.
+            if (separator < 0) {
+                return new KeysetCursor(null, Long.valueOf(raw));
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Example&lt;Member&gt; 를 JPQL 로 컴파일한다.
+ * <ul>
+ *     <li>인덱스를 탈 수 있는 조건(PK, username, team_id ...)을 앞에, 인덱스를 못 타는 조건(ignoreCase, CONTAINING, ENDING)을 뒤에 둔다.</li>
+ *     <li>STARTING 은 like 'x%' (prefix) 로 만들어 username 인덱스를 range scan 한다.</li>
+ *     <li>조건의 모양(경로, 매처, null 처리, ANY/ALL)별로 JPQL 을 캐시한다. (repository.example.plans{result=hit|miss})</li>
+ * </ul>
+ * 지원하지 않는 경로(감사 필드 등)에 값이 있거나 NullHandler.INCLUDE 이면 비어 있는 Optional 을 돌려주고,
+ * 호출자는 스프링 데이터 기본 방식(QueryByExamplePredicateBuilder)으로 처리한다.
+ */
+@Component
+public class MemberExampleCompiler {
+
+    private static final char ESCAPE = '\\';
+
+    // 경로 -> (JPQL 식, 인덱스 우선순위). 순서가 낮을수록 인덱스 선택도가 좋다.
+    private static final Map<String, PathInfo> PATHS = new LinkedHashMap<>();
+
+    static {
+        PATHS.put("id", new PathInfo("m.id", 0));
+        PATHS.put("username", new PathInfo("m.username", 1)); // idx_member_username_id
+        PATHS.put("team.id", new PathInfo("m.team.id", 2));
+        PATHS.put("team.name", new PathInfo("t.name", 3));
+        PATHS.put("age", new PathInfo("m.age", 4));
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberExampleCompiler(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("repository.example.plans").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("repository.example.plans").tag("result", "miss").register(meterRegistry);
+    }
+
+    public Optional<MemberSpecCompiler.CompiledQuery> compile(Example<Member> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+            return Optional.empty();
+        }
+
+        List<Condition> conditions = new ArrayList<>();
+        EntityType<Member> memberType = em.getMetamodel().entity(Member.class);
+        if (!collect(memberType, "", example.getProbe(), accessor, conditions)) {
+            return Optional.empty();
+        }
+        conditions.sort(Comparator.comparing((Condition c) -> !c.sargable).thenComparing(c -> c.path.rank));
+
+        StringBuilder shape = new StringBuilder(matcher.isAllMatching() ? "ALL" : "ANY");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (Condition condition : conditions) {
+            shape.append('|').append(condition.key);
+            parameters.put("p" + parameters.size(), condition.value);
+        }
+
+        String key = shape.toString();
+        String jpql = plans.get(key);
+        if (jpql != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            jpql = plans.computeIfAbsent(key, k -> render(conditions, matcher.isAllMatching()));
+        }
+        return Optional.of(new MemberSpecCompiler.CompiledQuery(jpql, parameters));
+    }
+
+    public int getPlanCount() {
+        return plans.size();
+    }
+
+    private boolean collect(ManagedType<?> type, String prefix, Object probe, ExampleMatcherAccessor accessor,
+                            List<Condition> conditions) {
+        DirectFieldAccessFallbackBeanWrapper wrapper = new DirectFieldAccessFallbackBeanWrapper(probe);
+        for (SingularAttribute<?, ?> attribute : type.getSingularAttributes()) {
+            String path = prefix + attribute.getName();
+            if (accessor.isIgnoredPath(path)) {
+                continue;
+            }
+
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(wrapper.getPropertyValue(attribute.getName())))
+                    .orElse(null);
+
+            if (value == null) {
+                continue;
+            }
+
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE) {
+                if (!prefix.isEmpty()) {
+                    return false; // team 아래의 연관관계까지는 지원하지 않는다.
+                }
+                if (!collect(em.getMetamodel().managedType(attribute.getJavaType()), path + ".", value, accessor, conditions)) {
+                    return false;
+                }
+                continue;
+            }
+
+            PathInfo info = PATHS.get(path);
+            if (info == null) {
+                return false;
+            }
+            conditions.add(value instanceof String
+                    ? stringCondition(path, info, (String) value, accessor)
+                    : new Condition(info, path + ":eq", true, "=", value));
+        }
+        return true;
+    }
+
+    private Condition stringCondition(String path, PathInfo info, String value, ExampleMatcherAccessor accessor) {
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+        String parameter = ignoreCase ? value.toLowerCase() : value;
+        ExampleMatcher.StringMatcher stringMatcher = accessor.getStringMatcherForPath(path);
+        String key = path + ":" + stringMatcher + (ignoreCase ? ":ic" : "");
+
+        switch (stringMatcher) {
+            case DEFAULT:
+            case EXACT:
+                return new Condition(info, key, !ignoreCase, "=", parameter).ignoreCase(ignoreCase);
+            case STARTING:
+                return new Condition(info, key, !ignoreCase, "like", escape(parameter) + "%").ignoreCase(ignoreCase);
+            case ENDING:
+                return new Condition(info, key, false, "like", "%" + escape(parameter)).ignoreCase(ignoreCase);
+            case CONTAINING:
+                return new Condition(info, key, false, "like", "%" + escape(parameter) + "%").ignoreCase(ignoreCase);
+            default:
+                throw new IllegalArgumentException("지원하지 않는 StringMatcher: " + stringMatcher);
+        }
+    }
+
+    private static String render(List<Condition> conditions, boolean allMatching) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if (conditions.stream().anyMatch(c -> c.path.expression.startsWith("t."))) {
+            jpql.append(" join m.team t");
+        }
+
+        String separator = " where ";
+        int index = 0;
+        for (Condition condition : conditions) {
+            jpql.append(separator);
+            String expression = condition.ignoreCase ? "lower(" + condition.path.expression + ")" : condition.path.expression;
+            jpql.append(expression).append(' ').append(condition.operator).append(" :p").append(index++);
+            if ("like".equals(condition.operator)) {
+                jpql.append(" escape '").append(ESCAPE).append('\'');
+            }
+            separator = allMatching ? " and " : " or ";
+        }
+        return jpql.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static class PathInfo {
+        final String expression;
+        final int rank;
+
+        PathInfo(String expression, int rank) {
+            this.expression = expression;
+            this.rank = rank;
+        }
+    }
+
+    private static class Condition {
+        final PathInfo path;
+        final String key;
+        final boolean sargable; // 인덱스를 탈 수 있는 조건인지
+        final String operator;
+        final Object value;
+        boolean ignoreCase;
+
+        Condition(PathInfo path, String key, boolean sargable, String operator, Object value) {
+            this.path = path;
+            this.key = key;
+            this.sargable = sargable;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        Condition ignoreCase(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package study.datajpa.repository;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
+import study.datajpa.dto.TotalAwarePage;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
@@ -9,11 +13,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final CountCache countCache;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -70,10 +77,22 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    // findByPage + totalCount 를 CountCache 로 묶는다. findByPage 는 List 만 돌려주므로 total 의 정확도를 담을 수 없어 따로 둔다.
+    public TotalAwarePage<Member> findPageByAge(int age, Pageable pageable) {
+        List<Member> members = findByPage(age, (int) pageable.getOffset(), pageable.getPageSize() + 1); // 다음 페이지 여부 확인용 +1
+
+        boolean hasNext = members.size() > pageable.getPageSize();
+        List<Member> content = hasNext ? members.subList(0, pageable.getPageSize()) : members;
+        return countCache.toPage(new SliceImpl<>(content, pageable, hasNext),
+                "MemberJpaRepository.totalCount:" + age, () -> totalCount(age));
+    }
+
     public int bulkAgePlus(int age) {
 
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        countCache.invalidate();
+        return resultCount;
     }
 }
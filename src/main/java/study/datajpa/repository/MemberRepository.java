@@ -5,14 +5,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.schema.RequiresIndex;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface MemberRepository extends JpaRepository<Member, Long> , MemberRepositoryCustom, JpaSpecificationExecutor<Member> {
 
@@ -21,8 +26,18 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     List<Member> findTop3HelloBy();
 
 //    @Query(name = "Member.findByUsername") //생략가능
+    @RequiresIndex(table = "member", columns = "username")
+    @Transactional(readOnly = true) // readOnly 트랜잭션 → 복제본으로 라우팅 (datajpa.routing)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member.byUsername")
+    })
     List<Member> findByUsername(@Param("username") String username);
 
+    @Async("repositoryExecutor") // 비동기 실행 (커넥션 풀 크기만큼만 동시 실행)
+    @Transactional(readOnly = true)
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
@@ -30,9 +45,22 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
+    @Transactional(readOnly = true)
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // 엔티티를 만들지 않고 DTO로 바로 조회 (팀이 없는 회원도 포함)
+    @Transactional(readOnly = true)
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDto(Pageable pageable);
+
+    // count 없이 size + 1 조회 → CountCache.toPage 로 total을 추론하거나 캐시에서 가져온다.
+    @Transactional(readOnly = true)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Slice<MemberDto> findMemberDtoSlice(Pageable pageable);
+
+    @RequiresIndex(table = "member", columns = "username")
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
@@ -46,14 +74,23 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
             countQuery = "select count(m) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
 
+    @RequiresIndex(table = "member", columns = "age")
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    // findSliceByAge + countByAge 를 CountCache.toPage 로 묶으면 count 를 생략/캐시하는 findByAge 가 된다. (/members/age/{age})
+    @RequiresIndex(table = "member", columns = "age")
+    long countByAge(int age);
+
+    @RequiresIndex(table = "member", columns = "age")
     List<Member> findListByAge(int age, Pageable pageable);
 
+    @RequiresIndex(table = "member", columns = "age")
     List<Member> findTop3ByAge(int age);
 
+    @RequiresIndex(table = "member", columns = "age")
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    // version 도 올려야 동시에 변경 감지로 수정하는 쪽이 버전 충돌로 실패한다. (안 올리면 벌크 변경을 덮어쓴다)
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
@@ -71,6 +108,7 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
 //    @EntityGraph("Member.all")
     List<Member> findEntityGraphByUsername(/*@Param("username")*/ String username);
 
+    @Transactional(readOnly = true)
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
@@ -78,15 +116,43 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
+    //select for update (pk)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findLockById(@Param("id") Long id);
+
+    // 작업 큐: 다른 워커가 잠근 행은 건너뛰고 limit 개를 잠근다. 잠금은 호출한 트랜잭션이 끝날 때 풀린다.
+    @RequiresIndex(table = "member", columns = "age")
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "select * from member where age = :age order by member_id limit :limit for update skip locked", nativeQuery = true)
+    List<Member> claimByAge(@Param("age") int age, @Param("limit") int limit);
+
+    // compare-and-set: 읽었을 때의 version 과 같을 때만 변경. 0 이면 다른 트랜잭션이 먼저 변경한 것
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Member m set m.age = :age, m.version = m.version + 1 where m.id = :id and m.version = :version")
+    int updateAgeIfVersion(@Param("id") Long id, @Param("age") int age, @Param("version") Long version);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Member m set m.username = :username, m.version = m.version + 1 where m.id = :id and m.version = :version")
+    int updateUsernameIfVersion(@Param("id") Long id, @Param("username") String username, @Param("version") Long version);
+
+    @Transactional(readOnly = true)
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
+    @Transactional(readOnly = true)
     List<UsernameOnlyDto> findProjectionsV2ByUsername(@Param("username") String username);
+    @Transactional(readOnly = true)
     <T> List<T> findProjectionsV3ByUsername(@Param("username") String username, Class<T> type);
 
+    @Transactional(readOnly = true)
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
+    // 행마다 프록시 + 튜플 Map 을 만든다. 대량 조회는 findNativeRows / streamNativeRows (MemberRow)
+    @Transactional(readOnly = true)
     @Query(value = "SELECT m.member_id as id, m.username, t.name as teamName " +
-            "from member m left join team t",
+            "from member m left join team t on m.team_id = t.team_id",
             countQuery = "select count(*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
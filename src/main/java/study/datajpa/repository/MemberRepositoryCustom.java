@@ -1,9 +1,60 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.schema.RequiresIndex;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMebmerCustom();
+
+    @RequiresIndex(table = "member", columns = {"username", "member_id"})
+    CursorPage<Member> findKeysetPage(String cursor, int size);
+
+    Stream<MemberDto> streamMemberDto(int fetchSize);
+
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    List<Member> findAllByIdInOrder(Collection<Long> ids);
+
+    @RequiresIndex(table = "member", columns = "username")
+    List<Member> findAllByUsernameInOrder(Collection<String> usernames);
+
+    List<Member> findAllWithTeam(FetchStrategy strategy);
+
+    Page<Member> findPageWithTeam(Specification<Member> spec, Pageable pageable);
+
+    List<Member> search(MemberSearchCondition condition);
+
+    List<Member> findAllByExample(Example<Member> example, int limit);
+
+    Slice<Member> findSliceByExample(Example<Member> example, Pageable pageable);
+
+    Stream<Member> streamByExample(Example<Member> example, int fetchSize);
+
+    List<Member> findLockByUsername(String username, Duration lockTimeout);
+
+    @RequiresIndex(table = "member", columns = "username")
+    <T> List<T> findProjectedByUsername(String username, Class<T> type);
+
+    @Transactional(readOnly = true)
+    Page<MemberRow> findNativeRows(Pageable pageable);
+
+    // 커넥션을 스트림이 닫힐 때까지 써야 하므로 호출한 (읽기 전용) 트랜잭션 안에서만 쓴다. (스프링 데이터 Stream 쿼리와 같다)
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    Stream<MemberRow> streamNativeRows(Sort sort, int fetchSize);
 }
@@ -1,17 +1,83 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.auditing.AuditStamp;
+import study.datajpa.auditing.AuditStampResolver;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    // findByNativeProjection 과 같은 조인. 컬럼 순서를 고정해서 행마다 컬럼 이름을 찾지 않는다.
+    private static final String NATIVE_ROWS = "select m.member_id, m.username, t.name" +
+            " from member m left join team t on t.team_id = m.team_id";
+    private static final String NATIVE_ROWS_COUNT = "select count(*) from member";
+    private static final int ID = 1;
+    private static final int USERNAME = 2;
+    private static final int TEAM_NAME = 3;
+
+    private static final RowMapper<MemberRow> MEMBER_ROW = (rs, rowNum) -> {
+        long id = rs.getLong(ID);
+        return new MemberRow(rs.wasNull() ? null : id, rs.getString(USERNAME), rs.getString(TEAM_NAME));
+    };
+
+    // 정렬은 화이트리스트만 (속성 이름 → 컬럼). 그대로 SQL 에 붙으므로 임의 문자열을 받지 않는다.
+    private static final Map<String, String> NATIVE_SORT = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "teamName", "t.name");
+
 //    @PersistenceContext
     private final EntityManager em;
+    private final MemberSpecCompiler memberSpecCompiler;
+    private final MemberExampleCompiler memberExampleCompiler;
+    private final AuditStampResolver auditStampResolver;
+    private final ClosedProjectionCompiler closedProjectionCompiler;
+    private final JdbcTemplate jdbcTemplate;
 
 //    public MemberRepositoryImpl(EntityManager em) {
 //        this.em = em;
@@ -22,4 +88,312 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    /**
+     * offset 없이 (username, member_id) 인덱스를 타고 바로 다음 위치로 seek 한다.
+     * count 쿼리도 없으므로 N 번째 페이지도 첫 페이지와 같은 비용이 든다.
+     */
+    @Override
+    public CursorPage<Member> findKeysetPage(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size는 1 이상이어야 합니다: " + size);
+        }
+
+        // username 이 null 인 회원은 맨 앞에 둔다. (nulls first)
+        TypedQuery<Member> query;
+        if (cursor == null || cursor.isEmpty()) {
+            query = em.createQuery("select m from Member m order by m.username asc nulls first, m.id asc", Member.class);
+        } else {
+            KeysetCursor key = KeysetCursor.decode(cursor);
+            if (key.getUsername() == null) {
+                query = em.createQuery("select m from Member m" +
+                                " where (m.username is null and m.id > :id) or m.username is not null" +
+                                " order by m.username asc nulls first, m.id asc", Member.class)
+                        .setParameter("id", key.getId());
+            } else {
+                query = em.createQuery("select m from Member m" +
+                                " where m.username > :username or (m.username = :username and m.id > :id)" +
+                                " order by m.username asc nulls first, m.id asc", Member.class)
+                        .setParameter("username", key.getUsername())
+                        .setParameter("id", key.getId());
+            }
+        }
+
+        // size + 1 개를 가져와서 다음 페이지 존재 여부를 판단한다. (slice와 같은 방식)
+        List<Member> members = query.setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = members.size() > size;
+        List<Member> content = hasNext ? new ArrayList<>(members.subList(0, size)) : members;
+        String nextCursor = hasNext ? KeysetCursor.of(content.get(size - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * forward-only 커서로 fetchSize 단위씩 읽어 오는 DTO 스트림.
+     * DTO 는 영속성 컨텍스트에 올라가지 않으므로 건수와 상관없이 메모리 사용량이 일정하다.
+     * 반드시 트랜잭션 안에서 사용하고 try-with-resources로 닫아야 한다.
+     */
+    @Override
+    public Stream<MemberDto> streamMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t order by m.id", MemberDto.class)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * persist만 하고 batchSize 마다 flush/clear 한다. (merge 조회 없음, 영속성 컨텍스트 크기 고정)
+     * hibernate.jdbc.batch_size, order_inserts 설정과 같이 써야 insert가 batch로 묶인다.
+     */
+    @Override
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 는 1 이상이어야 합니다: " + batchSize);
+        }
+        AuditStamp stamp = auditStampResolver.resolve(); // 감사 정보는 한 번만 구해서 모든 회원에 찍는다.
+        int count = 0;
+        for (Member member : members) {
+            if (!member.isStamped()) {
+                member.stamp(stamp);
+            }
+            em.persist(member);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Override
+    public List<Member> findAllByIdInOrder(Collection<Long> ids) {
+        return BatchLookup.findAllById(em, Member.class, ids,
+                chunk -> em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                        .setParameter("ids", chunk)
+                        .getResultList(),
+                Member::getId);
+    }
+
+    @Override
+    public List<Member> findAllByUsernameInOrder(Collection<String> usernames) {
+        return BatchLookup.findAllByKey(usernames,
+                chunk -> em.createQuery("select m from Member m where m.username in :usernames order by m.id", Member.class)
+                        .setParameter("usernames", chunk)
+                        .getResultList(),
+                Member::getUsername);
+    }
+
+    @Override
+    public List<Member> findAllWithTeam(FetchStrategy strategy) {
+        switch (strategy) {
+            case JOIN:
+                return em.createQuery("select m from Member m", Member.class)
+                        .setHint("javax.persistence.fetchgraph", em.getEntityGraph("Member.all"))
+                        .getResultList();
+            case BATCH:
+                List<Member> members = em.createQuery("select m from Member m", Member.class)
+                        .getResultList();
+                members.forEach(m -> Hibernate.initialize(m.getTeam())); // default_batch_fetch_size 개씩 묶여서 초기화
+                return members;
+            case SUBSELECT:
+                List<Member> roots = em.createQuery("select m from Member m", Member.class)
+                        .getResultList();
+                // 방금 읽은 회원들이 가리키는 팀만 영속성 컨텍스트에 올려두면 프록시 초기화 시 추가 쿼리가 나가지 않는다.
+                // (프록시의 id 는 초기화 없이 꺼낼 수 있다)
+                PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+                Set<Long> teamIds = new LinkedHashSet<>();
+                for (Member member : roots) {
+                    if (member.getTeam() != null) {
+                        teamIds.add((Long) util.getIdentifier(member.getTeam()));
+                    }
+                }
+                BatchLookup.findAllById(em, Team.class, teamIds, chunk -> em.createQuery("select t from Team t where t.id in :ids", Team.class)
+                        .setParameter("ids", chunk)
+                        .getResultList(), Team::getId);
+                return roots;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 fetch 전략: " + strategy);
+        }
+    }
+
+    @Override
+    public Page<Member> findPageWithTeam(Specification<Member> spec, Pageable pageable) {
+        return TwoPhasePagedQuery.findPage(em, Member.class, spec, pageable, "Member.all");
+    }
+
+    /**
+     * MemberSpec.username(..).and(MemberSpec.teamName(..)) 와 같은 결과를 캐시된 JPQL 로 조회한다.
+     */
+    @Override
+    public List<Member> search(MemberSearchCondition condition) {
+        MemberSpecCompiler.CompiledQuery compiled = memberSpecCompiler.compile(condition);
+        return compiled.bind(em.createQuery(compiled.getJpql(), Member.class))
+                .getResultList();
+    }
+
+    @Override
+    public List<Member> findAllByExample(Example<Member> example, int limit) {
+        return exampleQuery(example, Sort.unsorted())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Slice<Member> findSliceByExample(Example<Member> example, Pageable pageable) {
+        List<Member> members = exampleQuery(example, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = members.size() > pageable.getPageSize();
+        List<Member> content = hasNext ? new ArrayList<>(members.subList(0, pageable.getPageSize())) : members;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<Member> streamByExample(Example<Member> example, int fetchSize) {
+        return exampleQuery(example, Sort.unsorted())
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * 인덱스 순서로 정렬된 캐시 JPQL 을 쓰고, 컴파일할 수 없는 Example 이면 스프링 데이터 기본 Criteria 로 처리한다.
+     * 정렬이 없으면 id 순으로 정렬해서 Slice 경계를 고정한다.
+     */
+    private TypedQuery<Member> exampleQuery(Example<Member> example, Sort sort) {
+        Sort stableSort = sort.isSorted() ? sort : Sort.by("id");
+        return memberExampleCompiler.compile(example)
+                .map(compiled -> compiled.bind(em.createQuery(QueryUtils.applySorting(compiled.getJpql(), stableSort, "m"), Member.class)))
+                .orElseGet(() -> {
+                    CriteriaBuilder cb = em.getCriteriaBuilder();
+                    CriteriaQuery<Member> query = cb.createQuery(Member.class);
+                    Root<Member> root = query.from(Member.class);
+                    Predicate predicate = QueryByExamplePredicateBuilder.getPredicate(root, cb, example, EscapeCharacter.DEFAULT);
+                    if (predicate != null) {
+                        query.where(predicate);
+                    }
+                    query.orderBy(QueryUtils.toOrders(stableSort, root, cb));
+                    return em.createQuery(query);
+                });
+    }
+
+    /**
+     * findLockByUsername 에 락 대기 시간 제한을 둔다. 시간 안에 락을 못 잡으면 PessimisticLockException / LockTimeoutException.
+     * H2 는 쿼리 단위 힌트를 무시하고 세션의 LOCK_TIMEOUT 만 보므로, 이 쿼리 동안만 커넥션의 LOCK_TIMEOUT 을 바꿨다가 되돌린다.
+     */
+    @Override
+    public List<Member> findLockByUsername(String username, Duration lockTimeout) {
+        int timeoutMillis = (int) Math.min(lockTimeout.toMillis(), Integer.MAX_VALUE);
+        Session session = em.unwrap(Session.class);
+        Integer previous = session.doReturningWork(connection -> setH2LockTimeout(connection, timeoutMillis));
+        try {
+            return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                    .setParameter("username", username)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setHint("javax.persistence.lock.timeout", timeoutMillis)
+                    .getResultList();
+        } finally {
+            if (previous != null) {
+                session.doWork(connection -> setH2LockTimeout(connection, previous));
+            }
+        }
+    }
+
+    // H2 면 LOCK_TIMEOUT 을 바꾸고 이전 값을 돌려준다. 다른 DB 는 null (javax.persistence.lock.timeout 힌트로 처리)
+    private static Integer setH2LockTimeout(Connection connection, int timeoutMillis) throws SQLException {
+        if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+            return null;
+        }
+        int previous = 1000; // H2 기본값
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(
+                    "select setting_value from information_schema.settings where setting_name = 'LOCK_TIMEOUT'")) {
+                if (rs.next()) {
+                    previous = Integer.parseInt(rs.getString(1));
+                }
+            }
+            statement.execute("set lock_timeout " + timeoutMillis);
+        }
+        return previous;
+    }
+
+    /**
+     * findProjectionsV3ByUsername 과 같은 결과를 필요한 컬럼만 조회해서 만든다. (ClosedProjectionCompiler)
+     * 엔티티를 영속성 컨텍스트에 올리지 않고, 중첩 프로젝션은 left join 한 번으로 채운다.
+     */
+    @Override
+    public <T> List<T> findProjectedByUsername(String username, Class<T> type) {
+        ClosedProjectionCompiler.CompiledProjection<T> projection = closedProjectionCompiler.compile(type);
+        List<?> rows = em.createQuery(projection.getJpql() + " where m.username = :username")
+                .setParameter("username", username)
+                .getResultList();
+
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(projection.map(row));
+        }
+        return result;
+    }
+
+    /**
+     * findByNativeProjection 의 JDBC 버전. ResultSet 을 MemberRow 로 바로 매핑하므로 행마다 프록시와 Map 을 만들지 않는다.
+     * count 는 findByNativeProjection 의 countQuery 와 같고, 마지막 페이지면 생략한다.
+     * JDBC 는 하이버네이트의 자동 flush 를 거치지 않으므로 네이티브 쿼리처럼 먼저 flush 한다. (flushBeforeJdbc)
+     */
+    @Override
+    public Page<MemberRow> findNativeRows(Pageable pageable) {
+        flushBeforeJdbc();
+        if (pageable.isUnpaged()) {
+            List<MemberRow> content = jdbcTemplate.query(NATIVE_ROWS + nativeOrderBy(pageable.getSort()), MEMBER_ROW);
+            return PageableExecutionUtils.getPage(content, pageable, () -> content.size());
+        }
+        List<MemberRow> content = jdbcTemplate.query(NATIVE_ROWS + nativeOrderBy(pageable.getSort()) + " limit ? offset ?",
+                MEMBER_ROW, pageable.getPageSize(), pageable.getOffset());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(NATIVE_ROWS_COUNT, Long.class));
+    }
+
+    /**
+     * 수만 건 리포트용. fetchSize 만큼씩 가져오면서 MemberRow 로 바로 매핑한다.
+     * 커넥션은 스트림을 닫을 때 반납되므로 반드시 try-with-resources 로 사용한다.
+     */
+    @Override
+    public Stream<MemberRow> streamNativeRows(Sort sort, int fetchSize) {
+        flushBeforeJdbc();
+        String sql = NATIVE_ROWS + nativeOrderBy(sort);
+        return jdbcTemplate.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, MEMBER_ROW);
+    }
+
+    // 같은 트랜잭션에서 아직 flush 되지 않은 변경이 보이도록 한다. 읽기 전용 트랜잭션은 하이버네이트도 flush 하지 않는다(FlushMode.MANUAL).
+    private void flushBeforeJdbc() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            em.flush();
+        }
+    }
+
+    private static String nativeOrderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String column = NATIVE_SORT.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            hasId |= "id".equals(order.getProperty());
+            orderBy.append(column).append(order.isAscending() ? " asc, " : " desc, ");
+        }
+        if (hasId) {
+            return orderBy.substring(0, orderBy.length() - 2);
+        }
+        return orderBy.append("m.member_id asc").toString(); // 페이지 사이에 행이 흔들리지 않도록 id 로 마무리
+    }
 }
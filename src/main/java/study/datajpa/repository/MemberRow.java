@@ -0,0 +1,38 @@
+package study.datajpa.repository;
+
+/**
+ * findNativeRows 결과. 프록시 + 튜플 Map 대신 필드 세 개짜리 불변 객체 하나로 행을 담는다.
+ * MemberProjection 을 구현하므로 findByNativeProjection 을 쓰던 코드에 그대로 넘길 수 있다.
+ */
+public final class MemberRow implements MemberProjection {
+
+    private final Long id;
+    private final String username;
+    private final String teamName;
+
+    public MemberRow(Long id, String username, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.teamName = teamName;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getTeamName() {
+        return teamName;
+    }
+
+    @Override
+    public String toString() {
+        return "MemberRow{id=" + id + ", username='" + username + "', teamName='" + teamName + "'}";
+    }
+}
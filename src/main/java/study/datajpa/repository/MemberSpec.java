@@ -18,12 +18,29 @@ public class MemberSpec {
                 return null;
             }
 
+            return teamNameEquals(builder.literal(teamName)).toPredicate(root, query, builder);
+        };
+    }
+
+    // 빈 문자열도 조건으로 쓴다 (username = ''). null 은 SQL 의 = null 처럼 아무것도 찾지 않는다.
+    public static Specification<Member> username(final String username) {
+        return (root, query, builder) -> {
+            if (username == null) {
+                return builder.disjunction();
+            }
+            return usernameEquals(builder.literal(username)).toPredicate(root, query, builder);
+        };
+    }
+
+    // 값 대신 파라미터(ParameterExpression)로 조건을 만든다. MemberSpecCompiler 가 조건 모양별 JPQL 로 렌더링할 때 사용
+    static Specification<Member> teamNameEquals(final Expression<String> teamName) {
+        return (root, query, builder) -> {
             Join<Member, Team> t = root.join("team", JoinType.INNER);//회원과 조인
             return builder.equal(t.get("name"), teamName); //조건(where)
         };
     }
 
-    public static Specification<Member> username(final String username) {
+    static Specification<Member> usernameEquals(final Expression<String> username) {
         return (root, query, builder) ->
                 builder.equal(root.get("username"), username);
     }
@@ -0,0 +1,38 @@
+package study.datajpa.repository;
+
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DB를 조회하지 않고 영속성 컨텍스트(1차 캐시)에 이미 있는 엔티티만 꺼낸다.
+ */
+public final class PersistenceContextLookup {
+
+    private PersistenceContextLookup() {
+    }
+
+    public static <T> T findManaged(EntityManager em, Class<T> type, Object id) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(type);
+        EntityKey key = session.generateEntityKey((Serializable) id, persister);
+        return type.cast(session.getPersistenceContextInternal().getEntity(key));
+    }
+
+    public static <T> List<T> findAllManaged(EntityManager em, Class<T> type) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        List<T> result = new ArrayList<>();
+        for (Map.Entry<EntityKey, Object> entry : session.getPersistenceContextInternal().getEntitiesByKey().entrySet()) {
+            if (type.isInstance(entry.getValue())) {
+                result.add(type.cast(entry.getValue()));
+            }
+        }
+        return result;
+    }
+}
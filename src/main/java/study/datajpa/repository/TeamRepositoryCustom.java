@@ -0,0 +1,23 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.Team;
+import study.datajpa.schema.RequiresIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+
+    List<Team> findAllByIdInOrder(Collection<Long> ids);
+
+    @RequiresIndex(table = "team", columns = "name")
+    List<Team> findAllByNameInOrder(Collection<String> names);
+
+    @RequiresIndex(table = "member", columns = "team_id")
+    List<Team> findAllWithMembers(FetchStrategy strategy);
+
+    Page<Team> findPageWithMembers(Specification<Team> spec, Pageable pageable);
+}
@@ -0,0 +1,74 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    public List<Team> findAllByIdInOrder(Collection<Long> ids) {
+        return BatchLookup.findAllById(em, Team.class, ids,
+                chunk -> em.createQuery("select t from Team t where t.id in :ids", Team.class)
+                        .setParameter("ids", chunk)
+                        .getResultList(),
+                Team::getId);
+    }
+
+    @Override
+    public List<Team> findAllByNameInOrder(Collection<String> names) {
+        return BatchLookup.findAllByKey(names,
+                chunk -> em.createQuery("select t from Team t where t.name in :names", Team.class)
+                        .setParameter("names", chunk)
+                        .getResultList(),
+                Team::getName);
+    }
+
+    @Override
+    public List<Team> findAllWithMembers(FetchStrategy strategy) {
+        switch (strategy) {
+            case JOIN:
+                return em.createQuery("select distinct t from Team t", Team.class)
+                        .setHint("javax.persistence.fetchgraph", em.getEntityGraph("Team.members"))
+                        .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+                        .getResultList();
+            case BATCH:
+                List<Team> teams = em.createQuery("select t from Team t", Team.class)
+                        .getResultList();
+                teams.forEach(t -> Hibernate.initialize(t.getMembers())); // default_batch_fetch_size 개씩 묶여서 초기화
+                return teams;
+            case SUBSELECT:
+                List<Team> roots = em.createQuery("select t from Team t", Team.class)
+                        .getResultList();
+                // 방금 읽은 팀의 id 로 members 를 fetch join → 이미 영속 상태인 팀의 members 컬렉션이 채워진다.
+                List<Long> ids = roots.stream().map(Team::getId).collect(Collectors.toList());
+                if (!ids.isEmpty()) {
+                    BatchLookup.findAll(ids, chunk -> em.createQuery("select distinct t from Team t left join fetch t.members" +
+                                    " where t.id in :ids", Team.class)
+                            .setParameter("ids", chunk)
+                            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+                            .getResultList());
+                }
+                return roots;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 fetch 전략: " + strategy);
+        }
+    }
+
+    @Override
+    public Page<Team> findPageWithMembers(Specification<Team> spec, Pageable pageable) {
+        return TwoPhasePagedQuery.findPage(em, Team.class, spec, pageable, "Team.members");
+    }
+}
@@ -0,0 +1,133 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 컬렉션 fetch join + 페이징을 두 번의 쿼리로 나눈다.
+ * 1) 조건/정렬/페이징을 적용해서 id 만 조회 2) 그 id 들을 엔티티 그래프로 fetch join 해서 조회.
+ * 메모리 페이징(HHH000104) 없이 SQL 과 메모리 모두 페이지 크기만큼만 사용한다.
+ * <p>
+ * spec 은 1단계의 서브쿼리(id in (select ...))에만 적용한다. spec 에서 컬렉션(1:N)을 조인해도
+ * 바깥 쿼리는 루트 한 건당 한 행이므로 limit/offset 이 루트 단위로 걸린다.
+ */
+public final class TwoPhasePagedQuery {
+
+    private TwoPhasePagedQuery() {
+    }
+
+    public static <T> Page<T> findPage(EntityManager em, Class<T> type, @Nullable Specification<T> spec,
+                                       Pageable pageable, String entityGraph) {
+        String idAttribute = idAttribute(em, type);
+
+        List<Object> ids = findIds(em, type, spec, pageable, idAttribute);
+        List<T> content = ids.isEmpty() ? Collections.emptyList() : fetchByIds(em, type, ids, idAttribute, entityGraph);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(em, type, spec));
+    }
+
+    private static <T> List<Object> findIds(EntityManager em, Class<T> type, @Nullable Specification<T> spec,
+                                            Pageable pageable, String idAttribute) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery();
+        Root<T> root = query.from(type);
+        query.select(root.get(idAttribute));
+        if (spec != null) {
+            // 조인으로 행이 늘어나는 것은 서브쿼리 안에서만 일어난다.
+            Subquery<Object> matching = query.subquery(Object.class);
+            Root<T> matchingRoot = matching.from(type);
+            matching.select(matchingRoot.get(idAttribute));
+            Predicate predicate = spec.toPredicate(matchingRoot, query, cb);
+            if (predicate != null) {
+                matching.where(predicate);
+                query.where(root.get(idAttribute).in(matching));
+            }
+        }
+
+        // 페이지 경계가 흔들리지 않도록 id 를 마지막 정렬 조건으로 붙인다.
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        if (pageable.getSort().getOrderFor(idAttribute) == null) {
+            orders.add(cb.asc(root.get(idAttribute)));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Object> typedQuery = em.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static <T> List<T> fetchByIds(EntityManager em, Class<T> type, List<Object> ids,
+                                          String idAttribute, String entityGraph) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        query.where(root.get(idAttribute).in(ids));
+
+        List<T> fetched = em.createQuery(query)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph(entityGraph))
+                .getResultList();
+
+        // fetch join 결과는 중복/순서가 보장되지 않으므로 1단계의 id 순서로 다시 맞춘다.
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        Map<Object, T> byId = new HashMap<>();
+        for (T entity : fetched) {
+            byId.putIfAbsent(util.getIdentifier(entity), entity);
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private static <T> long count(EntityManager em, Class<T> type, @Nullable Specification<T> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.countDistinct(root)); // to-many join 이 있는 spec 에서 루트가 중복 집계되지 않도록
+        applySpecification(spec, root, query, cb);
+        return em.createQuery(query).getSingleResult();
+    }
+
+    private static <T> void applySpecification(@Nullable Specification<T> spec, Root<T> root,
+                                               CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static <T> String idAttribute(EntityManager em, Class<T> type) {
+        EntityType<T> entityType = em.getMetamodel().entity(type);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+}
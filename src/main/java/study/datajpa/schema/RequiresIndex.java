@@ -0,0 +1,19 @@
+package study.datajpa.schema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 리포지토리 쿼리 메서드가 필요로 하는 인덱스. columns 가 인덱스의 선두 컬럼이어야 한다.
+ * 애플리케이션 시작 시 SchemaIndexVerifier 가 실제 스키마에 있는지 확인한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresIndex {
+
+    String table();
+
+    String[] columns();
+}
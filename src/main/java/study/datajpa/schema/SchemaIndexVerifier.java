@@ -0,0 +1,141 @@
+package study.datajpa.schema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 시작 시 @RequiresIndex 가 붙은 리포지토리 메서드를 모아서, 실제 DB 스키마에
+ * 해당 컬럼들로 시작하는 인덱스가 있는지 DatabaseMetaData 로 확인하고 없는 것을 경고한다.
+ * (datajpa.schema-verifier.fail-on-missing=true 면 시작 실패)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexVerifier {
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+
+    @Value("${datajpa.schema-verifier.enabled:true}")
+    private boolean enabled;
+
+    @Value("${datajpa.schema-verifier.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> missing = verify();
+        if (missing.isEmpty()) {
+            log.info("schema index check passed");
+            return;
+        }
+        missing.forEach(m -> log.warn("missing index: {}", m));
+        if (failOnMissing) {
+            throw new IllegalStateException("필요한 인덱스가 없습니다: " + missing);
+        }
+    }
+
+    /**
+     * @return 인덱스가 없는 "table(columns) <- Repository.method" 목록
+     */
+    public List<String> verify() {
+        Map<String, List<String>> required = collectRequiredIndexes();
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> entry : required.entrySet()) {
+                String[] key = entry.getKey().split(":");
+                List<String> columns = Arrays.asList(key[1].split(","));
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(key[0], table -> readIndexes(metaData, table));
+                if (indexes.stream().noneMatch(index -> startsWith(index, columns))) {
+                    missing.add(key[0] + "(" + key[1] + ") <- " + String.join(", ", entry.getValue()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("스키마 인덱스를 조회할 수 없습니다.", e);
+        }
+        return missing;
+    }
+
+    // "table:col1,col2" -> 필요로 하는 메서드 목록
+    private Map<String, List<String>> collectRequiredIndexes() {
+        Map<String, List<String>> required = new TreeMap<>();
+        for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(repository.getClass())) {
+                if (!type.getName().startsWith("study.datajpa.")) {
+                    continue;
+                }
+                ReflectionUtils.doWithMethods(type, method -> {
+                    RequiresIndex index = AnnotatedElementUtils.findMergedAnnotation(method, RequiresIndex.class);
+                    if (index != null) {
+                        String key = index.table().toLowerCase(Locale.ROOT) + ":"
+                                + String.join(",", index.columns()).toLowerCase(Locale.ROOT);
+                        List<String> methods = required.computeIfAbsent(key, k -> new ArrayList<>());
+                        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                        if (!methods.contains(name)) {
+                            methods.add(name);
+                        }
+                    }
+                });
+            }
+        }
+        return required;
+    }
+
+    // 인덱스 이름 -> 컬럼 목록(ORDINAL_POSITION 순)
+    private List<List<String>> readIndexes(DatabaseMetaData metaData, String table) {
+        for (String candidate : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            Map<String, TreeMap<Short, String>> indexes = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(null, null, candidate, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName == null || column == null) {
+                        continue;
+                    }
+                    indexes.computeIfAbsent(indexName, k -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(table + " 테이블 인덱스를 조회할 수 없습니다.", e);
+            }
+            if (!indexes.isEmpty()) {
+                List<List<String>> result = new ArrayList<>();
+                indexes.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+                return result;
+            }
+        }
+        return List.of();
+    }
+
+    private static boolean startsWith(List<String> index, List<String> columns) {
+        return index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns);
+    }
+}
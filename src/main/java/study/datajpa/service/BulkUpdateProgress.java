@@ -0,0 +1,28 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * checkpointId 이하의 id는 모두 처리 완료되었다. 중단되면 resumeAfterId로 넘겨서 이어서 실행한다.
+ */
+@Getter
+@ToString
+public class BulkUpdateProgress {
+
+    private final int completedChunks;
+    private final int totalChunks;
+    private final long updatedRows;
+    private final Long checkpointId;
+
+    public BulkUpdateProgress(int completedChunks, int totalChunks, long updatedRows, Long checkpointId) {
+        this.completedChunks = completedChunks;
+        this.totalChunks = totalChunks;
+        this.updatedRows = updatedRows;
+        this.checkpointId = checkpointId;
+    }
+
+    public boolean isDone() {
+        return completedChunks == totalChunks;
+    }
+}
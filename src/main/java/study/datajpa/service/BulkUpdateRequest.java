@@ -0,0 +1,43 @@
+package study.datajpa.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import study.datajpa.entity.Member;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link ChunkedBulkUpdater} 실행 조건.
+ * where는 Member 별칭 m 기준 JPQL 조건 (예: "m.age >= :age"), 없으면 전체 대상.
+ */
+@Getter
+@Builder
+public class BulkUpdateRequest {
+
+    private final String where;
+
+    @Singular
+    private final Map<String, Object> parameters;
+
+    private final Consumer<Member> mutation;
+
+    @Builder.Default
+    private final int chunkSize = 1000;
+
+    @Builder.Default
+    private final int parallelism = 1;
+
+    @Builder.Default
+    private final Duration throttle = Duration.ZERO;
+
+    /**
+     * 이전 실행의 {@link BulkUpdateProgress#getCheckpointId()}. 이 id 이후부터 이어서 처리한다.
+     */
+    private final Long resumeAfterId;
+
+    @Builder.Default
+    private final Consumer<BulkUpdateProgress> progressListener = progress -> { };
+}
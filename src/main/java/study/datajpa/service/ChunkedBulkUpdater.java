@@ -0,0 +1,232 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.PersistenceContextLookup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 한 번에 큰 범위를 잠그는 update 대신 id 범위(chunk)마다 짧은 트랜잭션으로 나눠서 엔티티를 변경한다.
+ * <ul>
+ *     <li>chunk 마다 REQUIRES_NEW 트랜잭션 → 락 범위와 undo 로그가 chunkSize로 제한된다.</li>
+ *     <li>chunk 의 row 는 select ... for update 로 잠그고 읽으므로 동시에 변경하는 쪽과 갱신이 유실되지 않는다.
+ *     그래도 버전 충돌이 나면 그 chunk 만 새 트랜잭션으로 다시 읽어서 적용한다. (OptimisticRetryExecutor)</li>
+ *     <li>변경 감지 + JDBC batch 로 update 하므로 2차 캐시도 변경된 엔티티만 갱신된다. (벌크 JPQL은 리전 전체를 비운다)</li>
+ *     <li>호출한 쪽 영속성 컨텍스트는 clear 하지 않고 변경된 회원만 detach 한다.</li>
+ * </ul>
+ * chunk 트랜잭션이 호출자 트랜잭션이 잡고 있는 row 락을 기다리다 교착될 수 있으므로 트랜잭션 안에서는 실행하지 않는다.
+ * 트랜잭션 밖이라도(open-in-view) 호출한 쪽 영속성 컨텍스트에 flush 안 된 변경이 있으면 detach 로 잃게 되므로 실행하지 않는다.
+ */
+@Slf4j
+@Component
+public class ChunkedBulkUpdater {
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final OptimisticRetryExecutor chunkExecutor;
+    private final TransactionTemplate readTransaction;
+
+    @Value("${datajpa.bulk-update.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    public ChunkedBulkUpdater(EntityManager em, EntityManagerFactory emf, PlatformTransactionManager transactionManager,
+                              OptimisticRetryExecutor chunkExecutor) {
+        this.em = em;
+        this.emf = emf;
+        this.chunkExecutor = chunkExecutor;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * MemberRepository.bulkAgePlus 의 chunk 버전.
+     */
+    public BulkUpdateProgress bulkAgePlus(int age) {
+        return update(BulkUpdateRequest.builder()
+                .where("m.age >= :age")
+                .parameter("age", age)
+                .mutation(member -> member.setAge(member.getAge() + 1))
+                .chunkSize(defaultChunkSize)
+                .build());
+    }
+
+    public BulkUpdateProgress update(BulkUpdateRequest request) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("chunked bulk update must run outside a transaction");
+        }
+        Set<Long> callerManagedIds = callerManagedIds();
+        List<long[]> chunks = chunks(request);
+        Progress progress = new Progress(chunks, request.getResumeAfterId());
+        if (chunks.isEmpty()) {
+            return progress.snapshot();
+        }
+
+        List<Long> affectedInCaller = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, request.getParallelism()));
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    List<Long> ids = updateChunk(request, chunks.get(index));
+                    request.getProgressListener().accept(progress.complete(index, ids.size()));
+                    throttle(request);
+                    return ids;
+                }));
+            }
+            for (Future<List<Long>> future : futures) {
+                for (Long id : future.get()) {
+                    if (callerManagedIds.contains(id)) {
+                        affectedInCaller.add(id);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("bulk update interrupted at " + progress.snapshot(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("bulk update failed at " + progress.snapshot(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            detachFromCaller(affectedInCaller);
+        }
+
+        BulkUpdateProgress result = progress.snapshot();
+        log.info("chunked bulk update done: {}", result);
+        return result;
+    }
+
+    private List<Long> updateChunk(BulkUpdateRequest request, long[] range) {
+        return chunkExecutor.execute(() -> {
+            TypedQuery<Member> query = em.createQuery("select m from Member m where m.id between :fromId and :toId"
+                    + (request.getWhere() == null ? "" : " and (" + request.getWhere() + ")"), Member.class)
+                    .setParameter("fromId", range[0])
+                    .setParameter("toId", range[1])
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            request.getParameters().forEach(query::setParameter);
+
+            List<Long> ids = new ArrayList<>();
+            for (Member member : query.getResultList()) {
+                request.getMutation().accept(member);
+                ids.add(member.getId());
+            }
+            return ids;
+        });
+    }
+
+    private List<long[]> chunks(BulkUpdateRequest request) {
+        Object[] minMax = readTransaction.execute(status -> {
+            StringBuilder jpql = new StringBuilder("select min(m.id), max(m.id) from Member m where 1 = 1");
+            if (request.getWhere() != null) {
+                jpql.append(" and (").append(request.getWhere()).append(")");
+            }
+            if (request.getResumeAfterId() != null) {
+                jpql.append(" and m.id > :resumeAfterId");
+            }
+            TypedQuery<Object[]> query = em.createQuery(jpql.toString(), Object[].class);
+            request.getParameters().forEach(query::setParameter);
+            if (request.getResumeAfterId() != null) {
+                query.setParameter("resumeAfterId", request.getResumeAfterId());
+            }
+            return query.getSingleResult();
+        });
+
+        List<long[]> chunks = new ArrayList<>();
+        if (minMax == null || minMax[0] == null) {
+            return chunks;
+        }
+        long min = (Long) minMax[0];
+        long max = (Long) minMax[1];
+        for (long from = min; from <= max; from += request.getChunkSize()) {
+            chunks.add(new long[]{from, Math.min(max, from + request.getChunkSize() - 1)});
+        }
+        return chunks;
+    }
+
+    private Set<Long> callerManagedIds() {
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        Set<Long> ids = new HashSet<>();
+        if (callerEm != null) {
+            if (callerEm.unwrap(Session.class).isDirty()) {
+                throw new IllegalStateException("caller persistence context has unflushed changes; flush and commit them first");
+            }
+            for (Member member : PersistenceContextLookup.findAllManaged(callerEm, Member.class)) {
+                ids.add(member.getId());
+            }
+        }
+        return ids;
+    }
+
+    private void detachFromCaller(List<Long> ids) {
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (callerEm == null) {
+            return;
+        }
+        for (Long id : ids) {
+            Member member = PersistenceContextLookup.findManaged(callerEm, Member.class, id);
+            if (member != null) {
+                callerEm.detach(member);
+            }
+        }
+    }
+
+    private void throttle(BulkUpdateRequest request) throws InterruptedException {
+        if (!request.getThrottle().isZero()) {
+            Thread.sleep(request.getThrottle().toMillis());
+        }
+    }
+
+    /**
+     * 병렬로 끝나는 chunk 들 사이에서 "여기까지는 전부 끝났다"는 checkpoint를 관리한다.
+     */
+    private static class Progress {
+        private final List<long[]> chunks;
+        private final boolean[] done;
+        private int completed;
+        private int contiguous;
+        private long updatedRows;
+        private Long checkpointId;
+
+        Progress(List<long[]> chunks, Long resumeAfterId) {
+            this.chunks = chunks;
+            this.done = new boolean[chunks.size()];
+            this.checkpointId = resumeAfterId;
+        }
+
+        synchronized BulkUpdateProgress complete(int index, int rows) {
+            done[index] = true;
+            completed++;
+            updatedRows += rows;
+            while (contiguous < done.length && done[contiguous]) {
+                checkpointId = chunks.get(contiguous)[1];
+                contiguous++;
+            }
+            return snapshot();
+        }
+
+        synchronized BulkUpdateProgress snapshot() {
+            return new BulkUpdateProgress(completed, chunks.size(), updatedRows, checkpointId);
+        }
+    }
+}
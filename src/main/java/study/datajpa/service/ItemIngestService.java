@@ -0,0 +1,62 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * id 를 직접 할당하는 Item 대량 적재.
+ * <ul>
+ *     <li>ingest: 모두 새 id 일 때. JDBC 배치 insert</li>
+ *     <li>insertIgnore: 중복 id 는 무시</li>
+ *     <li>upsert: 중복 id 는 lastModifiedDate 만 갱신 (createdDate 는 유지)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemIngestService {
+
+    private final ItemRepository itemRepository;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Transactional
+    public BulkIngestResult ingest(Collection<Item> items) {
+        return measure("ingest", items, i -> itemRepository.persistAll(i, batchSize));
+    }
+
+    @Transactional
+    public BulkIngestResult insertIgnore(Collection<Item> items) {
+        return measure("insertIgnore", items, i -> itemRepository.insertIgnoreAll(i, batchSize));
+    }
+
+    @Transactional
+    public BulkIngestResult upsert(Collection<Item> items) {
+        return measure("upsert", items, i -> itemRepository.upsertAll(i, batchSize));
+    }
+
+    private BulkIngestResult measure(String operation, Collection<Item> items, ToIntFunction<Collection<Item>> action) {
+        long start = System.nanoTime();
+        int count = action.applyAsInt(items);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        BulkIngestResult result = new BulkIngestResult(count < 0 ? BulkIngestResult.UNKNOWN : count, elapsedMillis);
+        if (result.isCountKnown()) {
+            log.info("item {}: {} of {} items in {} ms ({} rows/s)", operation, count, items.size(), elapsedMillis, result.getRowsPerSecond());
+        } else {
+            log.info("item {}: unknown of {} items in {} ms (driver reported no row counts)", operation, items.size(), elapsedMillis);
+        }
+        return result;
+    }
+}
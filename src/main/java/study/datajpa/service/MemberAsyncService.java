@@ -0,0 +1,32 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import study.datajpa.async.BackpressureExecutor;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 리포지토리 호출을 repositoryExecutor 에서 실행한다. 포화 상태면 즉시 RejectedExecutionException.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberAsyncService {
+
+    private final MemberRepository memberRepository;
+    private final BackpressureExecutor repositoryExecutor;
+
+    public CompletableFuture<Page<MemberDto>> findMemberDto(Pageable pageable) {
+        return CompletableFuture.supplyAsync(() -> memberRepository.findMemberDto(pageable), repositoryExecutor);
+    }
+
+    public CompletableFuture<CursorPage<MemberDto>> findKeysetPage(String cursor, int size) {
+        return CompletableFuture.supplyAsync(() -> memberRepository.findKeysetPage(cursor, size).map(MemberDto::new),
+                repositoryExecutor);
+    }
+}
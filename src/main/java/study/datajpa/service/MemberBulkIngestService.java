@@ -0,0 +1,37 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 회원 적재. 팀은 미리 저장되어 있어야 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberBulkIngestService {
+
+    private final MemberRepository memberRepository;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Transactional
+    public BulkIngestResult ingest(Iterable<Member> members) {
+        long start = System.nanoTime();
+        int count = memberRepository.saveAllBatched(members, batchSize);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        BulkIngestResult result = new BulkIngestResult(count, elapsedMillis);
+        log.info("bulk ingest: {} members in {} ms ({} rows/s)", count, elapsedMillis, result.getRowsPerSecond());
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체를 NDJSON/CSV로 출력 스트림에 바로 써 준다. 전체 목록을 메모리에 올리지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    public long exportNdjson(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto(FETCH_SIZE)) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                writer.write(objectMapper.writeValueAsString(iterator.next()));
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,username,teamName\n");
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto(FETCH_SIZE)) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                MemberDto dto = iterator.next();
+                writer.write(String.valueOf(dto.getId()));
+                writer.write(',');
+                writer.write(csv(dto.getUsername()));
+                writer.write(',');
+                writer.write(csv(dto.getTeamName()));
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        // RFC 4180: 구분자, 따옴표, 줄바꿈(CR/LF) 이 있으면 따옴표로 감싼다
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
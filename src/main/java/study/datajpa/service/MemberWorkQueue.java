@@ -0,0 +1,63 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 나이가 age 인 회원을 작업 대상으로 보고 batchSize 개씩 잠가서(SKIP LOCKED) 처리한다.
+ * 여러 스레드/노드가 동시에 drain 해도 서로 다른 행을 가져가므로 락 대기 없이 병렬로 처리된다.
+ * processor 는 회원이 더 이상 대상이 아니도록(나이 변경 등) 바꿔야 한다. 그렇지 않으면 같은 회원을 계속 다시 가져온다.
+ */
+@Slf4j
+@Service
+public class MemberWorkQueue {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate claimTransaction;
+
+    public MemberWorkQueue(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                           @Value("${datajpa.work-queue.transaction-timeout:30s}") Duration transactionTimeout) {
+        this.memberRepository = memberRepository;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.claimTransaction.setTimeout(timeoutSeconds(transactionTimeout));
+    }
+
+    // 트랜잭션 timeout 은 초 단위이므로 올림한다. (500ms 를 버림하면 0초가 되어 모든 배치가 바로 timeout 된다)
+    static int timeoutSeconds(Duration timeout) {
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("datajpa.work-queue.transaction-timeout must be positive: " + timeout);
+        }
+        long seconds = timeout.getSeconds() + (timeout.getNano() > 0 ? 1 : 0);
+        return (int) Math.min(seconds, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return 이 호출에서 처리한 회원 수. 남은 행이 모두 다른 워커에게 잠겨 있으면 기다리지 않고 끝낸다.
+     */
+    public int drain(int age, int batchSize, Consumer<Member> processor) {
+        int processed = 0;
+        while (true) {
+            Integer claimed = claimTransaction.execute(status -> {
+                List<Member> members = memberRepository.claimByAge(age, batchSize);
+                members.forEach(processor);
+                return members.size();
+            });
+            if (claimed == null || claimed == 0) {
+                log.debug("work queue drained: {} members processed", processed);
+                return processed;
+            }
+            processed += claimed;
+        }
+    }
+}
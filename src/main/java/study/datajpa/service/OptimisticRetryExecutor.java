@@ -0,0 +1,89 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌(OptimisticLockingFailureException)이 나면 새 트랜잭션으로 다시 실행한다.
+ * 재시도 간격은 initialBackoff 부터 두 배씩 maxBackoff 까지 늘리고, 같은 순간에 다시 부딪히지 않도록 jitter 를 준다.
+ * 매 시도가 REQUIRES_NEW 이므로 호출자 트랜잭션의 영속성 컨텍스트에는 변경 전 엔티티가 남아 있을 수 있다. 트랜잭션 밖에서 호출한다.
+ * (member.optimistic.retries, member.optimistic.failures)
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter retries;
+    private final Counter failures;
+
+    @Value("${datajpa.optimistic-retry.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${datajpa.optimistic-retry.initial-backoff:5ms}")
+    private Duration initialBackoff;
+
+    @Value("${datajpa.optimistic-retry.max-backoff:200ms}")
+    private Duration maxBackoff;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retries = meterRegistry.counter("member.optimistic.retries");
+        this.failures = meterRegistry.counter("member.optimistic.failures");
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        long backoffMillis = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("optimistic lock conflict, retry {}/{} after {} ms", attempt, maxAttempts, backoffMillis);
+                sleep(ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1));
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoff.toMillis());
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * compare-and-set update(MemberRepository.updateXxxIfVersion)의 결과가 0 이면 충돌로 보고 재시도하게 한다.
+     */
+    public static void requireUpdated(int updatedRows, Object id) {
+        if (updatedRows == 0) {
+            throw new OptimisticLockingFailureException("version mismatch: member " + id);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting to retry", e);
+        }
+    }
+}
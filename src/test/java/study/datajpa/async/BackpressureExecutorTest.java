@@ -0,0 +1,46 @@
+package study.datajpa.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackpressureExecutorTest {
+
+    @Test
+    public void rejectWhenSaturated() throws Exception {
+        BackpressureExecutor executor = new BackpressureExecutor(2, Duration.ofMillis(50), false);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            //given - 2개 작업이 자리를 모두 차지
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() -> await(release), executor);
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() -> await(release), executor);
+            assertThat(executor.getAvailablePermits()).isEqualTo(0);
+
+            //when then
+            assertThatThrownBy(() -> CompletableFuture.runAsync(() -> {}, executor))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            CompletableFuture.allOf(first, second).get(1, TimeUnit.SECONDS);
+            CompletableFuture.runAsync(() -> {}, executor).get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.auditing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuditScopeTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void requiresNewGetsItsOwnValue() {
+        //given
+        AuditScope<Object> scope = new AuditScope<>("test");
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            Object first = scope.computeIfAbsent(Object::new);
+
+            //when - 바깥 트랜잭션이 중단되는 동안
+            Object nested = inner.execute(s -> scope.computeIfAbsent(Object::new));
+
+            //then - 안쪽은 새 값, 재개된 바깥은 원래 값
+            assertThat(nested).isNotSameAs(first);
+            assertThat(scope.computeIfAbsent(Object::new)).isSameAs(first);
+        });
+    }
+
+    @Test
+    public void scopesDoNotShareValues() {
+        AuditScope<Object> a = new AuditScope<>("same");
+        AuditScope<Object> b = new AuditScope<>("same");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertThat(a.computeIfAbsent(Object::new)).isNotSameAs(b.computeIfAbsent(Object::new)));
+    }
+}
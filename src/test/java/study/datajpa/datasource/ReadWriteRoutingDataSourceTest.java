@@ -0,0 +1,116 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * in-memory H2 3개(primary, replica0, replica1)로 라우팅을 확인한다. 각 DB의 node 테이블에 자기 이름이 들어 있다.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    ReadWriteRoutingDataSource routing;
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    public void writeGoesToPrimary() throws SQLException {
+        routing = routing(node("replica0"), node("replica1"));
+
+        assertThat(route()).isEqualTo("primary");
+    }
+
+    @Test
+    public void readOnlyRoundRobin() throws SQLException {
+        routing = routing(node("replica0"), node("replica1"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(Arrays.asList(route(), route(), route(), route()))
+                .containsExactly("replica0", "replica1", "replica0", "replica1");
+    }
+
+    @Test
+    public void skipUnhealthyReplica() throws SQLException {
+        routing = routing(down(), node("replica1"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(Arrays.asList(route(), route(), route())).containsOnly("replica1");
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+    }
+
+    @Test
+    public void fallbackToPrimaryWhenAllReplicasDown() throws SQLException {
+        routing = routing(down(), down());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(route()).isEqualTo("primary");
+    }
+
+    @Test
+    public void poolTimeoutKeepsReplicaHealthy() throws SQLException {
+        routing = routing(saturated(), node("replica1"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(Arrays.asList(route(), route())).containsOnly("replica1");
+        assertThat(routing.getReplicas().get(0).isHealthy()).isTrue();
+    }
+
+    private ReadWriteRoutingDataSource routing(DataSource replica0, DataSource replica1) throws SQLException {
+        return new ReadWriteRoutingDataSource(node("primary"),
+                List.of(new ReplicaDataSource("replica-0", replica0), new ReplicaDataSource("replica-1", replica1)),
+                RoutingDataSourceProperties.Balancing.ROUND_ROBIN, Duration.ofMinutes(1));
+    }
+
+    private DataSource node(String name) throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists node (name varchar(20))");
+            statement.execute("delete from node");
+            statement.execute("insert into node values ('" + name + "')");
+        }
+        return dataSource;
+    }
+
+    private DataSource down() {
+        return new DriverManagerDataSource("jdbc:unknown:down");
+    }
+
+    // Hikari 풀 대기 시간 초과와 같은 예외 (SQLState 없음)
+    private DataSource saturated() {
+        return new DriverManagerDataSource("jdbc:h2:mem:saturated") {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLTransientConnectionException("replica - Connection is not available, request timed out after 30000ms.");
+            }
+        };
+    }
+
+    private String route() throws SQLException {
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -10,9 +10,11 @@ import study.datajpa.repository.MemberRepository;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -80,4 +82,23 @@ class MemberTest {
         System.out.println("findMember.createdBy = " + findMember.getCreateBy());
         System.out.println("findMember.updatedBy = " + findMember.getLastModifiedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void auditingOncePerTransaction() {
+        //given
+        Member member1 = memberRepository.save(new Member("audit1"));
+        Member member2 = memberRepository.save(new Member("audit2"));
+
+        List<Member> bulk = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bulk.add(new Member("auditBulk" + i));
+        }
+        memberRepository.saveAllBatched(bulk, 100); // AuditStamp 로 한 번에 찍는다
+
+        //then - 같은 트랜잭션이면 작성자와 시각이 같다
+        assertThat(member1.getCreateBy()).isNotNull().isEqualTo(member2.getCreateBy());
+        assertThat(member1.getCreatedDate()).isNotNull().isEqualTo(member2.getCreatedDate());
+        assertThat(bulk).allMatch(m -> member1.getCreateBy().equals(m.getCreateBy())
+                && member1.getCreatedDate().equals(m.getCreatedDate()));
+    }
+}
@@ -0,0 +1,147 @@
+package study.datajpa.lookup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class MemberLookupTest {
+
+    @Autowired
+    MemberLookup memberLookup;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager em;
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void requestIdentityMap() {
+        //given
+        Member saved = memberRepository.save(new Member("lookupMember"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        double before = count("request");
+
+        //when
+        Member first = memberLookup.find(saved.getId()).get();
+        Member second = memberLookup.find(saved.getId()).get();
+
+        //then - 같은 요청이면 DB 조회 없이 같은 인스턴스
+        assertThat(second).isSameAs(first);
+        assertThat(count("request") - before).isEqualTo(1);
+        assertThat(memberLookup.find(-1L)).isEmpty();
+    }
+
+    @Test
+    public void concurrentLookupsAreCoalesced() throws Exception {
+        //given - 첫 조회가 release 전까지 끝나지 않는 저장소
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemberRepository slowRepository = mock(MemberRepository.class);
+        when(slowRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            Member member = new Member("lookupConcurrent");
+            member.setId(1L);
+            return Optional.of(member);
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberLookup lookup = new MemberLookup(slowRepository, mock(EntityManager.class), registry, Duration.ZERO, 100);
+
+        //when - 첫 조회가 DB 에 있는 동안 7개가 같은 id 를 찾는다
+        List<CompletableFuture<Optional<Member>>> futures = new ArrayList<>();
+        futures.add(CompletableFuture.supplyAsync(() -> lookup.find(1L), executor));
+        loading.await();
+        for (int i = 0; i < 7; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> lookup.find(1L), executor));
+        }
+        while (count(registry, "coalesced") < 7) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        //then - DB 조회는 한 번, 나머지는 그 결과를 받되 인스턴스는 각자 따로
+        Set<Member> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CompletableFuture<Optional<Member>> future : futures) {
+            Member member = future.get(5, TimeUnit.SECONDS).get();
+            assertThat(member.getUsername()).isEqualTo("lookupConcurrent");
+            members.add(member);
+        }
+        assertThat(count(registry, "loaded")).isEqualTo(1);
+        assertThat(count(registry, "coalesced")).isEqualTo(7);
+        assertThat(members).hasSize(8);
+        verify(slowRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void lookedUpMembersCanBeSaved() {
+        //given - 공유 캐시를 켠 MemberLookup
+        Member saved = memberRepository.save(new Member("lookupSave", 10));
+        MemberLookup lookup = new MemberLookup(memberRepository, em, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
+        //when - 첫 조회는 DB 에서, 두 번째는 공유 캐시의 복사본
+        Member loaded = lookup.find(saved.getId()).get();
+        Member copy = lookup.find(saved.getId()).get();
+
+        //then - 복사본도 id, version, 감사 필드를 가지고 있어 새 엔티티로 취급되지 않는다
+        assertThat(copy).isNotSameAs(loaded);
+        assertThat(copy.getVersion()).isEqualTo(loaded.getVersion());
+        assertThat(copy.getCreatedDate()).isEqualTo(loaded.getCreatedDate());
+        assertThat(copy.getCreateBy()).isEqualTo(loaded.getCreateBy());
+
+        copy.setAge(11);
+        Member merged = memberRepository.save(copy);
+        assertThat(merged.getVersion()).isEqualTo(saved.getVersion() + 1);
+        assertThat(memberRepository.findById(saved.getId()).get().getAge()).isEqualTo(11);
+        assertThat(memberRepository.findById(saved.getId()).get().getCreatedDate()).isEqualTo(saved.getCreatedDate());
+    }
+
+    private double count(String result) {
+        return count(meterRegistry, result);
+    }
+
+    private static double count(MeterRegistry registry, String result) {
+        return registry.get("member.lookup").tag("result", result).counter().count();
+    }
+}
@@ -3,8 +3,18 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -13,10 +23,66 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @PersistenceContext
+    EntityManager em;
+
     @Test
     public void save() {
 
         Item item = new Item("A");
         itemRepository.save(item);
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    public void persistAll() {
+        //given
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new Item("persist-" + i));
+        }
+
+        //when
+        int persisted = itemRepository.persistAll(items, 100);
+
+        //then
+        assertThat(persisted).isEqualTo(250);
+        assertThat(itemRepository.findById("persist-249")).isPresent();
+    }
+
+    @Test
+    @Transactional
+    public void insertIgnoreAndUpsert() {
+        //given
+        itemRepository.persistAll(Arrays.asList(new Item("dup-1"), new Item("dup-2")), 100);
+        LocalDateTime created = itemRepository.findById("dup-2").orElseThrow().getCreatedDate();
+        em.clear();
+
+        //when - 중복 id 는 행마다 조회하지 않고 건너뛴다
+        int inserted = itemRepository.insertIgnoreAll(Arrays.asList(new Item("dup-1"), new Item("dup-3"), new Item("dup-3")), 100);
+        int upserted = itemRepository.upsertAll(Arrays.asList(new Item("dup-2"), new Item("dup-4")), 100);
+
+        //then
+        assertThat(inserted).isEqualTo(1);
+        assertThat(upserted).isEqualTo(2);
+        assertThat(itemRepository.findAllById(Arrays.asList("dup-1", "dup-2", "dup-3", "dup-4"))).hasSize(4);
+
+        //then - upsert 는 생성 시각(isNew 기준)을 덮어쓰지 않는다
+        em.clear();
+        Item upsertedItem = itemRepository.findById("dup-2").orElseThrow();
+        assertThat(upsertedItem.getCreatedDate()).isEqualTo(created);
+        assertThat(upsertedItem.getLastModifiedDate()).isNotNull();
+        assertThat(upsertedItem.isNew()).isFalse();
+    }
+
+    @Test
+    public void rejectInvalidBatchSize() {
+        List<Item> items = List.of(new Item("invalid-batch"));
+
+        // 리포지토리 프록시가 IllegalArgumentException 을 InvalidDataAccessApiUsageException 으로 감싼다
+        assertThatThrownBy(() -> itemRepository.persistAll(items, 0))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> itemRepository.insertIgnoreAll(items, -1))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
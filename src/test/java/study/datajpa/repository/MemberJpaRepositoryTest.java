@@ -3,8 +3,14 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TotalAwarePage;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
@@ -25,6 +31,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     TeamJpaRepository teamJpaRepository;
 
+    @Autowired
+    CountCache countCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @PersistenceContext
     EntityManager em;
 
@@ -142,6 +154,50 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    public void pagingWithCountCache() {
+
+        //given
+        memberJpaRepository.save(new Member("member1", 11));
+        memberJpaRepository.save(new Member("member2", 11));
+        memberJpaRepository.save(new Member("member3", 11));
+        memberJpaRepository.save(new Member("member4", 11));
+        memberJpaRepository.save(new Member("member5", 11));
+
+        //when
+        TotalAwarePage<Member> first = memberJpaRepository.findPageByAge(11, PageRequest.of(0, 3)); // count 실행
+        TotalAwarePage<Member> cached = memberJpaRepository.findPageByAge(11, PageRequest.of(0, 3)); // 캐시된 count
+        TotalAwarePage<Member> last = memberJpaRepository.findPageByAge(11, PageRequest.of(1, 3)); // 마지막 페이지 → count 생략
+
+        //then
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.isTotalExact()).isTrue();
+        assertThat(cached.getTotalElements()).isEqualTo(5);
+        assertThat(cached.isTotalExact()).isFalse();
+        assertThat(last.getContent().size()).isEqualTo(2);
+        assertThat(last.getTotalElements()).isEqualTo(5);
+        assertThat(last.isTotalExact()).isTrue();
+    }
+
+    @Test
+    public void countCacheClearedAfterCommit() {
+        //given
+        SliceImpl<Integer> slice = new SliceImpl<>(List.of(1), PageRequest.of(0, 1), true);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        //when - 쓰기 트랜잭션이 커밋되기 전에 다른 요청이 이전 total 을 다시 캐시한 상황
+        requiresNew.executeWithoutResult(status -> {
+            countCache.invalidate();
+            countCache.toPage(slice, "afterCommit", () -> 1);
+        });
+        TotalAwarePage<Integer> page = countCache.toPage(slice, "afterCommit", () -> 2);
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
     @Test
     public void bulkUpdate() {
 
@@ -0,0 +1,70 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 락을 잡은 트랜잭션과 기다리는 트랜잭션이 따로 커밋되어야 하므로 @Transactional 없이 실행한다.
+ */
+@SpringBootTest
+class MemberLockTimeoutTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    public void lockTimeoutIsApplied() throws Exception {
+        //given - 다른 트랜잭션이 회원의 락을 잡고 있다
+        Member saved = memberRepository.save(new Member("lockTimeout", 0));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.findLockById(saved.getId()).get();
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            //when, then - 설정한 시간만큼만 기다리고 실패한다 (H2 기본 LOCK_TIMEOUT 1초보다 짧게도, 길게도)
+            assertThat(waitForLock(saved.getUsername(), Duration.ofMillis(200))).isBetween(150L, 900L);
+            assertThat(waitForLock(saved.getUsername(), Duration.ofMillis(1500))).isBetween(1400L, 3000L);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private long waitForLock(String username, Duration lockTimeout) {
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                status -> memberRepository.findLockByUsername(username, lockTimeout)))
+                .isInstanceOf(PessimisticLockingFailureException.class);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -1,23 +1,37 @@
 package study.datajpa.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.metrics.LazyLoadTracker;
+import study.datajpa.support.MaxLazyLoads;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -36,6 +50,15 @@ class MemberRepositoryTest {
     @Autowired
     MemberQueryRepository memberQueryRepository;
 
+    @Autowired
+    MemberSpecCompiler memberSpecCompiler;
+
+    @Autowired
+    MemberExampleCompiler memberExampleCompiler;
+
+    @Autowired
+    ClosedProjectionCompiler closedProjectionCompiler;
+
     @Test
     public void testMember() {
         System.out.println("memberRepository = " + memberRepository.getClass());
@@ -104,6 +127,131 @@ class MemberRepositoryTest {
         assertThat(result.size()).isEqualTo(1);
     }
 
+    @Test
+    public void saveAllBatched() {
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("batch" + i, i, team));
+        }
+
+        //when
+        int saved = memberRepository.saveAllBatched(members, 10);
+
+        //then
+        assertThat(saved).isEqualTo(25);
+        assertThat(members).allMatch(m -> m.getId() != null);
+        assertThat(em.contains(members.get(0))).isFalse(); // batchSize 마다 clear
+    }
+
+    @Test
+    public void saveAllBatchedRejectsInvalidBatchSize() {
+        List<Member> members = List.of(new Member("invalidBatch", 0));
+
+        // 리포지토리 프록시가 IllegalArgumentException 을 InvalidDataAccessApiUsageException 으로 감싼다
+        assertThatThrownBy(() -> memberRepository.saveAllBatched(members, 0))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.saveAllBatched(members, -1))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void findAllByIdInOrder() {
+        //given - 청크 크기(512)보다 많은 회원
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            members.add(new Member("lookup" + i, i));
+        }
+        memberRepository.saveAllBatched(members, 100);
+
+        List<Long> ids = members.stream().map(Member::getId).collect(Collectors.toList());
+        Collections.reverse(ids);
+        Member managed = memberRepository.findById(ids.get(0)).get();
+
+        //when
+        List<Member> result = memberRepository.findAllByIdInOrder(ids);
+
+        //then
+        assertThat(result).extracting(Member::getId).containsExactlyElementsOf(ids);
+        assertThat(result.get(0)).isSameAs(managed); // 영속성 컨텍스트에 있던 엔티티
+    }
+
+    @Test
+    public void findAllByUsernameInOrder() {
+        //given
+        memberRepository.save(new Member("orderA", 10));
+        memberRepository.save(new Member("orderB", 20));
+        memberRepository.save(new Member("orderC", 30));
+
+        //when
+        List<Member> result = memberRepository.findAllByUsernameInOrder(Arrays.asList("orderC", "none", "orderA", "orderB", "orderC"));
+
+        //then
+        assertThat(result).extracting(Member::getUsername).containsExactly("orderC", "orderA", "orderB");
+    }
+
+    @Test
+    public void findAllWithMembersBatchFetch() {
+        //given - 팀 1000개, 팀마다 회원 1명
+        for (int i = 0; i < 1000; i++) {
+            Team team = new Team("fetchTeam" + i);
+            em.persist(team);
+            em.persist(new Member("fetchMember" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        for (FetchStrategy strategy : FetchStrategy.values()) {
+            Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            //when
+            List<Team> teams = teamRepository.findAllWithMembers(strategy);
+            long memberCount = teams.stream().mapToLong(t -> t.getMembers().size()).sum();
+
+            //then - 1001번이 아니라 몇 번의 쿼리로 끝난다
+            System.out.println(strategy + " statements = " + statistics.getPrepareStatementCount());
+            assertThat(memberCount).isGreaterThanOrEqualTo(1000);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(50);
+
+            em.clear();
+            em.getEntityManagerFactory().getCache().evictAll();
+        }
+    }
+
+    @Test
+    public void findAllWithTeamBatchFetch() {
+        //given
+        for (int i = 0; i < 300; i++) {
+            Team team = new Team("withTeam" + i);
+            em.persist(team);
+            em.persist(new Member("withTeamMember" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        for (FetchStrategy strategy : FetchStrategy.values()) {
+            Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            //when
+            List<Member> members = memberRepository.findAllWithTeam(strategy);
+            members.stream().filter(m -> m.getTeam() != null).forEach(m -> m.getTeam().getName());
+
+            //then
+            System.out.println(strategy + " statements = " + statistics.getPrepareStatementCount());
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(50);
+
+            em.clear();
+            em.getEntityManagerFactory().getCache().evictAll();
+        }
+    }
+
     @Test
     public void findHelloBy() {
         List<Member> helloBy = memberRepository.findTop3HelloBy();
@@ -162,6 +310,40 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findMemberDtoPage() {
+
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+
+        memberRepository.save(new Member("AAA", 10, team));
+        memberRepository.save(new Member("BBB", 20));
+
+        Page<MemberDto> page = memberRepository.findMemberDto(PageRequest.of(0, 10, Sort.by("username")));
+
+        assertThat(page.getContent()).extracting("username").contains("AAA", "BBB");
+        assertThat(page.getContent())
+                .filteredOn(dto -> dto.getUsername().equals("AAA"))
+                .extracting("teamName").containsOnly("teamA");
+    }
+
+    @Test
+    public void streamMemberDto() {
+
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+
+        memberRepository.save(new Member("AAA", 10, team));
+        memberRepository.save(new Member("BBB", 20, team));
+
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto(1)) {
+            List<MemberDto> result = stream.collect(Collectors.toList());
+
+            assertThat(result).extracting("username").contains("AAA", "BBB");
+            assertThat(result).extracting("teamName").contains("teamA");
+        }
+    }
+
     @Test
     public void findByNames() {
         Member m1 = new Member("AAA", 10);
@@ -275,6 +457,49 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    public void keysetPaging() {
+
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+        memberRepository.save(new Member("member5", 10));
+
+        //when
+        CursorPage<Member> first = memberRepository.findKeysetPage(null, 2);
+        CursorPage<Member> second = memberRepository.findKeysetPage(first.getNextCursor(), 2);
+        CursorPage<Member> last = memberRepository.findKeysetPage(second.getNextCursor(), 2);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(last.getContent()).extracting("username").containsExactly("member5");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void keysetPagingWithNullUsername() {
+        //given
+        Member anonymous1 = memberRepository.save(new Member(null, 10));
+        Member anonymous2 = memberRepository.save(new Member(null, 10));
+
+        //when
+        CursorPage<Member> first = memberRepository.findKeysetPage(null, 1);
+        CursorPage<Member> second = memberRepository.findKeysetPage(first.getNextCursor(), 1);
+
+        //then - null username 도 건너뛰지 않고 차례로 나온다
+        assertThat(first.getContent()).extracting("id").containsExactly(anonymous1.getId());
+        assertThat(second.getContent()).extracting("id").containsExactly(anonymous2.getId());
+        // 리포지토리 프록시가 IllegalArgumentException 계열을 InvalidDataAccessApiUsageException 으로 감싼다 (컨트롤러는 원인으로 400 처리)
+        assertThatThrownBy(() -> memberRepository.findKeysetPage("not-a-cursor", 1))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(InvalidCursorException.class);
+    }
+
     @Test
     public void bulkUpdate() {
 
@@ -297,6 +522,25 @@ class MemberRepositoryTest {
 
         //then
         assertThat(resultCount).isEqualTo(3);
+        assertThat(member5.getVersion()).isEqualTo(1L); // 벌크 연산도 version 을 올린다
+    }
+
+    @Test
+    public void bulkUpdateEvictsSecondLevelCache() {
+
+        //given
+        Member member = memberRepository.save(new Member("cached", 30));
+        em.flush();
+        em.clear();
+        memberRepository.findById(member.getId()); // 2차 캐시 적재
+        em.clear();
+
+        //when
+        memberRepository.bulkAgePlus(30); // 벌크 연산은 member 리전을 무효화한다.
+
+        //then
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(31);
     }
 
     @Test
@@ -335,6 +579,87 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @MaxLazyLoads(0)
+    public void fetchJoinWithoutLazyLoads() {
+
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> members = memberRepository.findMemberFetchJoin();
+
+        //then
+        for (Member member : members) {
+            System.out.println("member.teamName = " + (member.getTeam() == null ? null : member.getTeam().getName()));
+        }
+    }
+
+    @Test
+    public void detectLazyLoads() {
+
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+        em.flush();
+        em.clear();
+
+        //when
+        LazyLoadTracker tracker = LazyLoadTracker.open(0, LazyLoadTracker.Mode.WARN);
+        try {
+            for (Member member : memberRepository.findMebmerCustom()) {
+                if (member.getTeam() != null) {
+                    member.getTeam().getName(); // N + 1
+                }
+            }
+        } finally {
+            tracker.close();
+        }
+
+        //then
+        System.out.println("tracker = " + tracker.report());
+        assertThat(tracker.isExceeded()).isTrue();
+        assertThat(tracker.getLoads()).containsKey(Team.class.getName());
+    }
+
+    @Test
+    public void batchFetchedLazyLoadsCountAsStatements() {
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Team team = teamRepository.save(new Team("batchTeam" + i));
+            ids.add(memberRepository.save(new Member("batchMember" + i, 10, team)).getId());
+        }
+        em.flush();
+        em.clear();
+        List<Member> members = memberRepository.findAllById(ids);
+
+        //when
+        LazyLoadTracker tracker = LazyLoadTracker.open(1, LazyLoadTracker.Mode.FAIL);
+        try {
+            for (Member member : members) {
+                member.getTeam().getName(); // default_batch_fetch_size 로 한 번에 초기화
+            }
+        } finally {
+            tracker.close();
+        }
+
+        //then - 프록시 10개가 아니라 실제로 실행된 select 1번
+        assertThat(tracker.getLoads()).containsEntry(Team.class.getName(), 1);
+        assertThat(tracker.isExceeded()).isFalse();
+    }
+
     @Test
     public void queryHint() {
 
@@ -390,6 +715,109 @@ class MemberRepositoryTest {
         assertThat(result.size()).isEqualTo(1);
     }
 
+    @Test
+    public void findPageWithTeam() {
+        //given
+        Team team = new Team("twoPhaseTeam");
+        em.persist(team);
+        for (int i = 0; i < 12; i++) {
+            em.persist(new Member("twoPhase" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        //when - id 페이지 조회 후 id 로 fetch join
+        PageRequest pageRequest = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "age"));
+        Page<Member> page = memberRepository.findPageWithTeam(MemberSpec.teamName("twoPhaseTeam"), pageRequest);
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        assertThat(page.getContent()).extracting(Member::getAge).containsExactly(6, 5, 4, 3, 2);
+        assertThat(page.getContent()).allMatch(m -> Hibernate.isInitialized(m.getTeam()));
+    }
+
+    @Test
+    public void findPageWithMembers() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("twoPhaseMembers" + i);
+            em.persist(team);
+            em.persist(new Member("a" + i, i, team));
+            em.persist(new Member("b" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        //when - 컬렉션 fetch join 이지만 메모리 페이징(HHH000104) 없이 페이지만 조회
+        Specification<Team> spec = (root, query, builder) -> builder.like(root.get("name"), "twoPhaseMembers%");
+        Page<Team> page = teamRepository.findPageWithMembers(spec, PageRequest.of(0, 2, Sort.by("name")));
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(Team::getName).containsExactly("twoPhaseMembers0", "twoPhaseMembers1");
+        assertThat(page.getContent()).allMatch(t -> Hibernate.isInitialized(t.getMembers()) && t.getMembers().size() == 2);
+    }
+
+    @Test
+    public void findPageWithMembersJoinSpec() {
+        //given - 팀 5개, 팀마다 회원 4명
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("joinSpec" + i);
+            em.persist(team);
+            for (int j = 0; j < 4; j++) {
+                em.persist(new Member("joinSpecMember" + i + "-" + j, 30, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        //when - spec 이 members 를 조인하므로 팀 한 건이 조인 결과에서는 4행이 된다
+        Specification<Team> spec = (root, query, builder) -> builder.and(
+                builder.like(root.get("name"), "joinSpec%"),
+                builder.equal(root.join("members").get("age"), 30));
+        List<Team> all = new ArrayList<>();
+        Page<Team> first = teamRepository.findPageWithMembers(spec, PageRequest.of(0, 2, Sort.by("name")));
+        all.addAll(first.getContent());
+        all.addAll(teamRepository.findPageWithMembers(spec, PageRequest.of(1, 2, Sort.by("name"))).getContent());
+        all.addAll(teamRepository.findPageWithMembers(spec, PageRequest.of(2, 2, Sort.by("name"))).getContent());
+
+        //then - 페이지는 루트(팀) 단위로 잘리고 total 도 팀 수
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+        assertThat(all).extracting(Team::getName)
+                .containsExactly("joinSpec0", "joinSpec1", "joinSpec2", "joinSpec3", "joinSpec4");
+        assertThat(all).allMatch(t -> t.getMembers().size() == 4);
+    }
+
+    @Test
+    public void searchWithCompiledSpec() {
+        //given
+        Team teamA = new Team("compiledTeam");
+        em.persist(teamA);
+        em.persist(new Member("compiled1", 0, teamA));
+        em.persist(new Member("compiled2", 0, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> byBoth = memberRepository.search(new MemberSearchCondition("compiled1", "compiledTeam"));
+        List<Member> byTeam = memberRepository.search(new MemberSearchCondition(null, "compiledTeam"));
+        List<Member> byTeamAgain = memberRepository.search(new MemberSearchCondition("", "compiledTeam"));
+
+        //then - 빈 teamName 은 버려지고, 빈 username 은 MemberSpec.username("") 과 같이 username = '' 조건이다
+        Specification<Member> spec = MemberSpec.username("compiled1").and(MemberSpec.teamName("compiledTeam"));
+        assertThat(byBoth).extracting(Member::getId).containsExactlyElementsOf(
+                memberRepository.findAll(spec).stream().map(Member::getId).collect(Collectors.toList()));
+        assertThat(byTeam).hasSize(2);
+        assertThat(byTeamAgain).isEmpty();
+        assertThat(byTeamAgain).hasSameSizeAs(memberRepository.findAll(MemberSpec.username("").and(MemberSpec.teamName("compiledTeam"))));
+        assertThat(memberSpecCompiler.compile(new MemberSearchCondition("a", "")).getJpql())
+                .isEqualTo(memberSpecCompiler.compile(new MemberSearchCondition("b", null)).getJpql());
+        assertThat(memberSpecCompiler.compile(new MemberSearchCondition(null, "x")).getJpql())
+                .isNotEqualTo(memberSpecCompiler.compile(new MemberSearchCondition("", "x")).getJpql());
+    }
+
     @Test
     public void queryByExample() {
         //given
@@ -421,6 +849,41 @@ class MemberRepositoryTest {
         assertThat(result.get(0).getTeam().getName()).isEqualTo("teamA");
     }
 
+    @Test
+    public void queryByExampleFastPath() {
+        //given
+        Team team = new Team("exampleTeam");
+        em.persist(team);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("example" + i, 0, team));
+        }
+        em.persist(new Member("example_x", 0, team));
+        em.flush();
+        em.clear();
+
+        //when - username 은 prefix like, team.name 은 join 조건
+        Member probe = new Member("example");
+        probe.setTeam(new Team("exampleTeam"));
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withIgnorePaths("age")
+                .withMatcher("username", ExampleMatcher.GenericPropertyMatchers.startsWith());
+        Example<Member> example = Example.of(probe, matcher);
+
+        List<Member> limited = memberRepository.findAllByExample(example, 3);
+        Slice<Member> slice = memberRepository.findSliceByExample(example, PageRequest.of(1, 4, Sort.by("username")));
+        List<Member> escaped = memberRepository.findAllByExample(
+                Example.of(new Member("example_"), ExampleMatcher.matching().withIgnorePaths("age")
+                        .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)), 10);
+
+        //then
+        assertThat(limited).extracting(Member::getUsername).containsExactly("example0", "example1", "example2");
+        assertThat(slice.getContent()).extracting(Member::getUsername).containsExactly("example4", "example_x");
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(escaped).extracting(Member::getUsername).containsExactly("example_x"); // _ 는 와일드카드가 아니다
+        assertThat(memberExampleCompiler.compile(example).get().getJpql())
+                .isEqualTo("select m from Member m join m.team t where m.username like :p0 escape '\\' and t.name = :p1");
+    }
+
     @Test
     public void projections() {
         //given
@@ -455,6 +918,71 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void compiledProjections() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("cp1", 0, teamA));
+        em.persist(new Member("cp2", 0));
+
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameOnly> usernames = memberRepository.findProjectedByUsername("cp1", UsernameOnly.class);
+        List<UsernameOnlyDto> dtos = memberRepository.findProjectedByUsername("cp1", UsernameOnlyDto.class);
+        List<NestedClosedProjections> nested = memberRepository.findProjectedByUsername("cp1", NestedClosedProjections.class);
+        List<NestedClosedProjections> noTeam = memberRepository.findProjectedByUsername("cp2", NestedClosedProjections.class);
+
+        //then
+        assertThat(usernames).extracting(UsernameOnly::getUsername).containsExactly("cp1");
+        assertThat(dtos).extracting(UsernameOnlyDto::getUsername).containsExactly("cp1");
+        assertThat(nested.get(0).getUsername()).isEqualTo("cp1");
+        assertThat(nested.get(0).getTeam().getName()).isEqualTo("teamA");
+        assertThat(noTeam.get(0).getTeam()).isNull();
+        assertThat(closedProjectionCompiler.compile(NestedClosedProjections.class).getJpql())
+                .isEqualTo("select j0.id, j0.name, m.username from Member m left join m.team j0");
+        assertThat(closedProjectionCompiler.compile(UsernameOnlyDto.class).getJpql())
+                .isEqualTo("select m.username from Member m");
+    }
+
+    interface UsernameWithGreeting {
+        String getUsername();
+
+        default String getGreeting() {
+            return "hello " + getUsername();
+        }
+    }
+
+    interface OpenUsername {
+        @Value("#{target.username + ' ' + target.age}")
+        String getUsername();
+    }
+
+    @Test
+    public void compiledProjectionRejectsOpenProjection() {
+        assertThatThrownBy(() -> closedProjectionCompiler.compile(OpenUsername.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("getUsername");
+    }
+
+    @Test
+    public void compiledProjectionDefaultMethod() {
+        //given
+        em.persist(new Member("cpDefault", 0));
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameWithGreeting> result = memberRepository.findProjectedByUsername("cpDefault", UsernameWithGreeting.class);
+
+        //then - default 메서드는 컬럼이 아니라 프록시의 값으로 계산된다
+        assertThat(result.get(0).getGreeting()).isEqualTo("hello cpDefault");
+        assertThat(closedProjectionCompiler.compile(UsernameWithGreeting.class).getJpql())
+                .isEqualTo("select m.username from Member m");
+    }
+
     @Test
     public void nativeQuery() {
         //given
@@ -480,4 +1008,53 @@ class MemberRepositoryTest {
             System.out.println("memberProjection.teamName = " + memberProjection.getTeamName());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void nativeRows() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("row" + i, 0, i % 2 == 0 ? teamA : null));
+        }
+
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberRow> page = memberRepository.findNativeRows(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username")));
+        List<MemberRow> streamed;
+        try (Stream<MemberRow> stream = memberRepository.streamNativeRows(Sort.by("username"), 2)) {
+            streamed = stream.filter(row -> row.getUsername().startsWith("row")).collect(Collectors.toList());
+        }
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+        assertThat(streamed).extracting(MemberRow::getUsername).containsExactly("row0", "row1", "row2", "row3", "row4");
+        assertThat(streamed).extracting(MemberRow::getTeamName).containsExactly("teamA", null, "teamA", null, "teamA");
+        assertThat(streamed.get(0).getId()).isNotNull();
+        assertThatThrownBy(() -> memberRepository.findNativeRows(PageRequest.of(0, 3, Sort.by("age; drop table member"))))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void nativeRowsSeeUnflushedChanges() {
+        //given - flush 하지 않는다
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("unflushed1", 0, teamA));
+        em.persist(new Member("unflushed2", 0, teamB));
+
+        //when
+        Page<MemberRow> rows = memberRepository.findNativeRows(PageRequest.of(0, 2000, Sort.by("id")));
+        Page<MemberProjection> projections = memberRepository.findByNativeProjection(PageRequest.of(0, 2000));
+
+        //then - JDBC 로 읽어도 같은 트랜잭션의 변경이 보이고, 두 쿼리 모두 회원마다 한 행(팀 조인)이다
+        assertThat(rows.getContent()).extracting(MemberRow::getUsername).contains("unflushed1", "unflushed2");
+        assertThat(rows.getContent()).filteredOn(row -> row.getUsername().startsWith("unflushed"))
+                .extracting(MemberRow::getTeamName).containsExactly("teamA", "teamB");
+        assertThat(projections.getContent()).hasSameSizeAs(rows.getContent());
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.schema;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    SchemaIndexVerifier schemaIndexVerifier;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void allRequiredIndexesExist() {
+        List<String> missing = schemaIndexVerifier.verify();
+
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    public void reportsMissingIndex() {
+        //given - age 인덱스를 잠시 없앤다
+        jdbcTemplate.execute("drop index idx_member_age");
+        try {
+            //when
+            List<String> missing = schemaIndexVerifier.verify();
+
+            //then - 테이블, 컬럼, 그 인덱스가 필요한 메서드가 나온다
+            assertThat(missing).hasSize(1);
+            assertThat(missing.get(0))
+                    .startsWith("member(age) <- ")
+                    .contains("MemberRepository.bulkAgePlus", "MemberRepository.countByAge");
+        } finally {
+            jdbcTemplate.execute("create index idx_member_age on member (age)");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * chunk 마다 별도 트랜잭션으로 커밋되므로 @Transactional 없이 실행한다.
+ */
+@SpringBootTest
+class ChunkedBulkUpdaterTest {
+
+    @Autowired
+    ChunkedBulkUpdater chunkedBulkUpdater;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    public void updateInChunks() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(memberRepository.save(new Member("chunk" + i, 100 + i)));
+        }
+        List<BulkUpdateProgress> progresses = new CopyOnWriteArrayList<>();
+
+        //when
+        BulkUpdateProgress result = chunkedBulkUpdater.update(BulkUpdateRequest.builder()
+                .where("m.username like 'chunk%' and m.age >= :age")
+                .parameter("age", 105)
+                .mutation(member -> member.setAge(member.getAge() + 1))
+                .chunkSize(2)
+                .parallelism(2)
+                .progressListener(progresses::add)
+                .build());
+
+        //then
+        assertThat(result.getUpdatedRows()).isEqualTo(5);
+        assertThat(result.isDone()).isTrue();
+        assertThat(progresses).hasSize(result.getTotalChunks());
+        assertThat(memberRepository.findById(members.get(4).getId()).get().getAge()).isEqualTo(104);
+        assertThat(memberRepository.findById(members.get(9).getId()).get().getAge()).isEqualTo(110);
+    }
+
+    @Test
+    public void resumeAfterCheckpoint() {
+        //given
+        Member first = memberRepository.save(new Member("resume1", 200));
+        Member second = memberRepository.save(new Member("resume2", 200));
+
+        //when
+        BulkUpdateProgress result = chunkedBulkUpdater.update(BulkUpdateRequest.builder()
+                .where("m.username like 'resume%'")
+                .mutation(member -> member.setAge(member.getAge() + 1))
+                .resumeAfterId(first.getId())
+                .build());
+
+        //then
+        assertThat(result.getUpdatedRows()).isEqualTo(1);
+        assertThat(result.getCheckpointId()).isEqualTo(second.getId());
+        assertThat(memberRepository.findById(first.getId()).get().getAge()).isEqualTo(200);
+        assertThat(memberRepository.findById(second.getId()).get().getAge()).isEqualTo(201);
+    }
+
+    @Test
+    public void refuseInsideTransaction() {
+        //given
+        memberRepository.save(new Member("insideTx", 300));
+
+        //when then - chunk 트랜잭션이 호출자 트랜잭션의 row 락을 기다리며 교착될 수 있다
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                chunkedBulkUpdater.update(BulkUpdateRequest.builder()
+                        .where("m.username = 'insideTx'")
+                        .mutation(member -> member.setAge(member.getAge() + 1))
+                        .build())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(memberRepository.findByUsername("insideTx").get(0).getAge()).isEqualTo(300);
+    }
+}
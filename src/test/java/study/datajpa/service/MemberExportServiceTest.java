@@ -0,0 +1,110 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        Team team = new Team("export,team");
+        em.persist(team);
+        em.persist(new Member("export plain", 0, team));
+        em.persist(new Member("export\"quote", 0, team));
+        em.persist(new Member("export\r\ncrlf", 0, team));
+        em.persist(new Member("export\rcr", 0, null));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void exportNdjson() throws Exception {
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.exportNdjson(out);
+
+        //then - 한 줄에 JSON 하나. 값 안의 줄바꿈은 이스케이프되므로 줄 수 = 회원 수
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(lines).hasSize((int) count);
+
+        List<String> usernames = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("username").asText().startsWith("export")) {
+                usernames.add(node.get("username").asText());
+            }
+        }
+        assertThat(usernames).containsExactlyInAnyOrder("export plain", "export\"quote", "export\r\ncrlf", "export\rcr");
+    }
+
+    @Test
+    public void exportCsv() throws Exception {
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.exportCsv(out);
+
+        //then - 구분자, 따옴표, CR/LF 가 있는 값은 따옴표로 감싸고 따옴표는 두 번 쓴다 (RFC 4180)
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(csv).startsWith("id,username,teamName\n");
+        assertThat(csv).contains(",export plain,\"export,team\"\n");
+        assertThat(csv).contains(",\"export\"\"quote\",\"export,team\"\n");
+        assertThat(csv).contains(",\"export\r\ncrlf\",\"export,team\"\n");
+        assertThat(csv).contains(",\"export\rcr\",\n");
+    }
+
+    @Test
+    public void exportEndpoint() throws Exception {
+        mockMvc.perform(get("/members/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(containsString("\"export\rcr\"")));
+
+        mockMvc.perform(get("/members/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(content().string(containsString("\"username\":\"export\\rcr\"")));
+    }
+}
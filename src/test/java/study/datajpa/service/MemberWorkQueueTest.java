@@ -0,0 +1,81 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 워커마다 별도 트랜잭션으로 커밋되므로 @Transactional 없이 실행한다.
+ */
+@SpringBootTest
+class MemberWorkQueueTest {
+
+    private static final int BACKLOG_AGE = 777;
+    private static final int DONE_AGE = 778;
+
+    @Autowired
+    MemberWorkQueue memberWorkQueue;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void drainInParallel() throws Exception {
+        //given
+        List<Member> backlog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            backlog.add(new Member("work" + i, BACKLOG_AGE));
+        }
+        memberRepository.saveAll(backlog);
+
+        //when - 4 워커가 동시에 10개씩 가져가서 처리
+        Set<Long> processedIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> memberWorkQueue.drain(BACKLOG_AGE, 10, member -> {
+                if (!processedIds.add(member.getId())) {
+                    duplicates.incrementAndGet();
+                }
+                member.setAge(DONE_AGE);
+            })));
+        }
+        int processed = 0;
+        for (Future<Integer> future : futures) {
+            processed += future.get();
+        }
+        executor.shutdown();
+
+        //then - 모든 회원이 정확히 한 번씩 처리된다
+        assertThat(processed).isEqualTo(200);
+        assertThat(processedIds).hasSize(200);
+        assertThat(duplicates.get()).isZero();
+        assertThat(memberRepository.findListByAge(BACKLOG_AGE, PageRequest.of(0, 1))).isEmpty();
+    }
+
+    @Test
+    public void subSecondTimeoutRoundsUp() {
+        assertThat(MemberWorkQueue.timeoutSeconds(Duration.ofMillis(500))).isEqualTo(1);
+        assertThat(MemberWorkQueue.timeoutSeconds(Duration.ofMillis(1500))).isEqualTo(2);
+        assertThat(MemberWorkQueue.timeoutSeconds(Duration.ofSeconds(30))).isEqualTo(30);
+        assertThatThrownBy(() -> MemberWorkQueue.timeoutSeconds(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 시도마다 새 트랜잭션으로 커밋되므로 @Transactional 없이 실행한다.
+ */
+@SpringBootTest
+class OptimisticRetryExecutorTest {
+
+    @Autowired
+    OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void retryVersionConflicts() throws Exception {
+        //given
+        Long id = memberRepository.save(new Member("optimistic", 0)).getId();
+
+        //when - 4 스레드가 같은 회원의 나이를 5번씩 증가 (변경 감지 + @Version)
+        concurrently(4, 5, () -> optimisticRetryExecutor.run(() -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+        }));
+
+        //then - 충돌한 트랜잭션은 재시도되어 갱신이 유실되지 않는다
+        Member member = memberRepository.findById(id).get();
+        assertThat(member.getAge()).isEqualTo(20);
+        assertThat(member.getVersion()).isEqualTo(20L);
+    }
+
+    @Test
+    public void compareAndSet() throws Exception {
+        //given
+        Long id = memberRepository.save(new Member("compareAndSet", 0)).getId();
+
+        //when
+        concurrently(4, 5, () -> optimisticRetryExecutor.run(() -> {
+            Member member = memberRepository.findById(id).get();
+            int updated = memberRepository.updateAgeIfVersion(id, member.getAge() + 1, member.getVersion());
+            OptimisticRetryExecutor.requireUpdated(updated, id);
+        }));
+
+        //then
+        assertThat(memberRepository.findById(id).get().getAge()).isEqualTo(20);
+    }
+
+    private void concurrently(int threads, int times, Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < times; j++) {
+                        work.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import study.datajpa.metrics.LazyLoadTracker;
+
+public class LazyLoadGuardExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LazyLoadGuardExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        int max = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxLazyLoads.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxLazyLoads.class))
+                .map(MaxLazyLoads::value)
+                .orElse(Integer.MAX_VALUE);
+        context.getStore(NAMESPACE).put(LazyLoadTracker.class, LazyLoadTracker.open(max, LazyLoadTracker.Mode.WARN));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        LazyLoadTracker tracker = context.getStore(NAMESPACE).remove(LazyLoadTracker.class, LazyLoadTracker.class);
+        if (tracker == null) {
+            return;
+        }
+        tracker.close();
+        if (tracker.isExceeded()) {
+            throw new AssertionError("N+1 suspected: " + tracker.report());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드 안에서 지연 로딩이 실행해도 되는 SQL 수. 넘으면 어떤 연관관계가 몇 번 select 했는지와 함께 실패한다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(LazyLoadGuardExtension.class)
+public @interface MaxLazyLoads {
+
+    int value() default 0;
+}